@@ -0,0 +1,73 @@
+package com.obs.productmanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/*
+ * Compare deux fichiers de résultats JMH (-rf json) : référence puis mesure courante.
+ * Un benchmark est identifié par sa méthode et ses @Param ; l'écart n'est signalé
+ * que s'il dépasse la somme des deux intervalles d'erreur.
+ *
+ *   mvn -Pbenchmark exec:exec@compare -Djmh.baseline=jmh-results-1.2.json
+ */
+public class JmhResultsDiff {
+
+    private record Score(double value, double error, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultsDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.value(), "new", now.unit());
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100;
+            boolean significant = Math.abs(now.value() - before.value()) > before.error() + now.error();
+            // Tous les benchmarks du module sont en AverageTime : plus haut = plus lent
+            if (significant && change > 0) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.value(), now.value(),
+                    change, now.unit(), significant ? (change > 0 ? "  SLOWER" : "  faster") : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14.3f %14s %9s%n", key, baseline.get(key).value(), "-", "removed"));
+
+        System.out.println(regressions + " significant regression(s)");
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.obs.productmanagement.", ""));
+            JsonNode params = run.path("params");
+            SortedSet<String> names = new TreeSet<>();
+            params.fieldNames().forEachRemaining(names::add);
+            names.forEach(name -> key.append(' ').append(name).append('=').append(params.path(name).asText()));
+
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(key.toString(), new Score(
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
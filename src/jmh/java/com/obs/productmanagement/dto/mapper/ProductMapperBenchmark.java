@@ -0,0 +1,44 @@
+package com.obs.productmanagement.dto.mapper;
+
+import com.obs.productmanagement.dto.ProductRequest;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Coût du mapping MapStruct entité <-> DTO sur le chemin d'écriture des produits
+ * (les lectures passent par des projections JPQL et ne mappent plus d'entités).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper mapper = new ProductMapperImpl();
+    private Product product;
+    private ProductRequest request;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category(10L, "Electronics", "Electronic devices", null);
+        product = new Product(1L, "MacBook Pro 16", 2499.99, "High-end laptop", new Date(), category);
+        request = new ProductRequest(null, "MacBook Pro 16", "High-end laptop", 2499.99, new Date(), 10L);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return mapper.toEntity(request);
+    }
+}
@@ -0,0 +1,89 @@
+package com.obs.productmanagement.exception.handler;
+
+import com.obs.productmanagement.dto.ProductRequest;
+import com.obs.productmanagement.exception.ProductNotFoundException;
+import jakarta.validation.Valid;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/*
+ * Chemins d'erreur de GlobalExceptionHandler derrière le DispatcherServlet (MockMvc) :
+ * exception métier (404), échec de validation du corps (400) et exception inattendue (500),
+ * comparés à une réponse nominale servie par le même contrôleur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    @RestController
+    @RequestMapping("/bench")
+    public static class FailingController {
+
+        @GetMapping("/ok")
+        public ProductRequest ok() {
+            return new ProductRequest(1L, "MacBook Pro 16", "High-end laptop", 2499.99, null, 1L);
+        }
+
+        @GetMapping("/not-found")
+        public ProductRequest notFound() {
+            throw new ProductNotFoundException(42L);
+        }
+
+        @PostMapping("/validate")
+        public ProductRequest validate(@Valid @RequestBody ProductRequest request) {
+            return request;
+        }
+
+        @GetMapping("/boom")
+        public ProductRequest boom() {
+            throw new IllegalStateException("unexpected");
+        }
+    }
+
+    // Tous les champs obligatoires manquent ou sont invalides : six violations à concaténer
+    private static final String INVALID_BODY = "{\"name\":\"\",\"price\":-1}";
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Benchmark
+    public String ok() throws Exception {
+        return mockMvc.perform(get("/bench/ok")).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String notFound() throws Exception {
+        return mockMvc.perform(get("/bench/not-found")).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String validationError() throws Exception {
+        return mockMvc.perform(post("/bench/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_BODY))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String internalError() throws Exception {
+        return mockMvc.perform(get("/bench/boom")).andReturn().getResponse().getContentAsString();
+    }
+}
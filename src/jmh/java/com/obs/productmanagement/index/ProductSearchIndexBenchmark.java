@@ -0,0 +1,132 @@
+package com.obs.productmanagement.index;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ProductSearchIndex sur un catalogue synthétique de `products` produits (vocabulaire de
+ * VOCABULARY mots, noms de 3 mots, descriptions de 8 à 20 mots, une référence chiffrée par produit) :
+ *  - build : reconstruction complète (pages indexées pendant la lecture de la suivante, puis
+ *    fusionnées), en millisecondes ;
+ *  - exact / prefix / typo / twoTerms : latence du classement d'une recherche limitée à 20
+ *    résultats, sans la lecture des réponses en base.
+ * La mémoire retenue par document (tas après GC, avec l'index moins sans l'index) est affichée au
+ * début de chaque essai : ids, longueurs, dictionnaire et listes de documents par terme et par
+ * catégorie.
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductSearchIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ProductSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000"})
+    private int products;
+
+    private List<IndexedProduct> rows;
+    private ProductSearchIndex index;
+    private String exactTerm;
+    private String prefix;
+    private String typo;
+    private String twoTerms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(random);
+        }
+
+        rows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            // Loi de Zipf approchée : quelques mots très fréquents, une longue traîne de mots rares
+            String name = zipf(words, random) + " " + zipf(words, random) + " " + zipf(words, random);
+            StringBuilder description = new StringBuilder("ref" + i);
+            for (int w = 8 + random.nextInt(13); w > 0; w--) {
+                description.append(' ').append(zipf(words, random));
+            }
+            rows.add(new IndexedProduct((long) i + 1, name, description.toString(), (long) (i % 20)));
+        }
+
+        // Termes de fréquence moyenne, pris dans le catalogue lui-même
+        exactTerm = words[50];
+        prefix = exactTerm.substring(0, 3);
+        typo = exactTerm.charAt(0) + exactTerm.substring(2, 3) + exactTerm.charAt(1) + exactTerm.substring(3);
+        twoTerms = words[10] + " " + words[200];
+
+        // Tas mesuré avec puis sans l'index, tout le reste étant déjà alloué
+        index = new ProductSearchIndex(null);
+        index.load(rows);
+        long loaded = usedHeap();
+        int documents = index.documentCount();
+        int terms = index.termCount();
+        index = null;
+        long empty = usedHeap();
+        index = new ProductSearchIndex(null);
+        index.load(rows);
+        System.out.printf("%n  %d documents, %d terms, ~%d bytes retained per document%n",
+                documents, terms, (loaded - empty) / products);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProductSearchIndex build() {
+        ProductSearchIndex fresh = new ProductSearchIndex(null);
+        fresh.load(rows);
+        return fresh;
+    }
+
+    @Benchmark
+    public Optional<List<Long>> exact() {
+        return index.matchingIds(exactTerm, LIMIT);
+    }
+
+    @Benchmark
+    public Optional<List<Long>> prefix() {
+        return index.matchingIds(prefix, LIMIT);
+    }
+
+    @Benchmark
+    public Optional<List<Long>> typo() {
+        return index.matchingIds(typo, LIMIT);
+    }
+
+    @Benchmark
+    public Optional<List<Long>> twoTerms() {
+        return index.matchingIds(twoTerms, LIMIT);
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[5 + random.nextInt(5)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    private static String zipf(String[] words, Random random) {
+        return words[(int) Math.min(words.length - 1, Math.floor(Math.pow(words.length, random.nextDouble())) - 1)];
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
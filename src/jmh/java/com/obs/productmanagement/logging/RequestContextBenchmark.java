@@ -0,0 +1,117 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.obs.productmanagement.dto.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Coût par requête du contexte de log, chaîne réduite à 5 logs de service :
+ *  - legacyMdc : ancien LoggingMdcFilter (3 lectures du SecurityContext, 4 MDC.put, MDC.clear) ;
+ *  - requestContext : LoggingMdcFilter actuel (RequestContext + RequestContextTurboFilter).
+ * level=WARN : les logs INFO sont désactivés, level=INFO : ils sont émis (appender vide).
+ * À lancer avec le profileur GC, la mesure est gc.alloc.rate.norm (octets par requête) :
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="RequestContextBenchmark -prof gc"
+ * doFilterInternal est appelé directement : OncePerRequestFilter pose un attribut de requête qui allouerait.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestContextBenchmark {
+
+    @Param({"WARN", "INFO"})
+    private String level;
+
+    private LoggerContext context;
+    private Logger logger;
+    private LoggingMdcFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.addTurboFilter(new RequestContextTurboFilter());
+        logger = context.getLogger("com.obs.productmanagement.service.ProductServiceImpl");
+        logger.setLevel(ch.qos.logback.classic.Level.toLevel(level));
+        UnsynchronizedAppenderBase<ILoggingEvent> discard = new UnsynchronizedAppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                event.getMDCPropertyMap();
+            }
+        };
+        discard.setContext(context);
+        discard.start();
+        logger.addAppender(discard);
+
+        filter = new LoggingMdcFilter();
+        request = new MockHttpServletRequest("GET", "/api/products/17");
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> {
+            for (int i = 0; i < 5; i++) {
+                logger.info("Product {} read from repository", 17);
+            }
+        };
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(42L, "salem@example.com", "Salem"), null, List.of()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.stop();
+    }
+
+    @Benchmark
+    public void requestContext() throws Exception {
+        filter.doFilterInternal(request, response, chain);
+    }
+
+    @Benchmark
+    public void legacyMdc() throws Exception {
+        try {
+            Long userId = userId();
+            String email = email();
+            if (userId != null) MDC.put("userId", String.valueOf(userId));
+            if (email != null) MDC.put("userEmail", email);
+            MDC.put("httpMethod", request.getMethod());
+            MDC.put("httpPath", request.getRequestURI());
+            chain.doFilter(request, response);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    // Copie des anciens SecurityUtils.getCurrentUserId / getCurrentUserEmail
+    private static UserPrincipal currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() ? null : (UserPrincipal) auth.getPrincipal();
+    }
+
+    private static Long userId() {
+        UserPrincipal p = currentUser();
+        return p != null ? p.id() : null;
+    }
+
+    private static String email() {
+        UserPrincipal p = currentUser();
+        return p != null ? p.email() : null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * Latence d'une "requête" qui écrit 5 lignes de log service (MDC rempli comme par LoggingMdcFilter),
+ * 4 threads en parallèle pour saturer l'écriture :
+ *  - SYNC : ancienne configuration, RollingFileAppender + LogstashEncoder sur le thread appelant,
+ *    un write() par événement ;
+ *  - DROP / DROP_BELOW_WARN / BLOCK : BatchingAsyncAppender devant le même fichier (immediateFlush=false).
+ * En mode SampleTime, JMH donne les percentiles : comparer p99 / p99.99 plus que la moyenne.
+ * Les événements perdus sont affichés en fin d'itération.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(1)
+public class ServiceLoggingBenchmark {
+
+    @Param({"SYNC", "DROP", "DROP_BELOW_WARN", "BLOCK"})
+    private String mode;
+
+    private LoggerContext context;
+    private Logger logger;
+    private BatchingAsyncAppender async;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("service-logging-bench");
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+
+        RollingFileAppender<ILoggingEvent> file = fileAppender(!"SYNC".equals(mode));
+        logger = context.getLogger("com.obs.productmanagement.service.ProductServiceImpl");
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+
+        if ("SYNC".equals(mode)) {
+            logger.addAppender(file);
+        } else {
+            async = new BatchingAsyncAppender();
+            async.setContext(context);
+            async.setName("LPS_JSON");
+            async.setOverflowPolicy(BatchingAsyncAppender.OverflowPolicy.valueOf(mode));
+            async.addAppender(file);
+            async.start();
+            logger.addAppender(async);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportDrops() {
+        if (async != null) {
+            System.out.printf("%n  dropped so far: %d%n", async.getDroppedCount());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.stop();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        MDC.put("userId", "42");
+        MDC.put("userEmail", "salem@example.com");
+        MDC.put("httpMethod", "GET");
+        MDC.put("httpPath", "/api/products/17");
+        try {
+            for (int i = 0; i < 5; i++) {
+                logger.info("Product {} read from repository, step {}", 17, i);
+            }
+            // Un peu de travail métier entre deux requêtes
+            Blackhole.consumeCPU(500);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private RollingFileAppender<ILoggingEvent> fileAppender(boolean batched) {
+        RollingFileAppender<ILoggingEvent> file = new RollingFileAppender<>();
+        file.setContext(context);
+        file.setName("LPS_JSON_FILE");
+        file.setFile(dir.resolve("app.jsonl").toString());
+        if (batched) {
+            file.setImmediateFlush(false);
+            file.setBufferSize(FileSize.valueOf("256KB"));
+        }
+
+        TimeBasedRollingPolicy<ILoggingEvent> policy = new TimeBasedRollingPolicy<>();
+        policy.setContext(context);
+        policy.setParent(file);
+        policy.setFileNamePattern(dir.resolve("app.%d{yyyy-MM-dd}.jsonl").toString());
+        policy.setMaxHistory(7);
+        policy.start();
+        file.setRollingPolicy(policy);
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+}
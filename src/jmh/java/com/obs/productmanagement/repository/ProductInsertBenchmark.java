@@ -0,0 +1,143 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import jakarta.persistence.*;
+import ch.qos.logback.classic.Logger;
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Débit d'insertion de produits par Hibernate, une transaction par invocation :
+ *  - identityIds   : ancien mapping IDENTITY, chaque persist part immédiatement en INSERT unitaire ;
+ *  - pooledBatched : mapping actuel (@TableGenerator par blocs de 50) avec hibernate.jdbc.batch_size=50.
+ * H2 est joint en mode serveur TCP (loopback) pour que chaque aller-retour JDBC ait un coût,
+ * comme avec MySQL ; l'écart réel dépend de la latence réseau vers la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductInsertBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private Server server;
+    private SessionFactory identityFactory;
+    private SessionFactory pooledFactory;
+    private Long identityCategoryId;
+    private Long pooledCategoryId;
+    private long invocation;
+
+    @Entity(name = "IdentityCategory")
+    @Table(name = "identity_category")
+    public static class IdentityCategory {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        String name;
+    }
+
+    @Entity(name = "IdentityProduct")
+    @Table(name = "identity_product")
+    public static class IdentityProduct {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        @Column(nullable = false, unique = true)
+        String name;
+        Double price;
+        String description;
+        Date expiryDate;
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "category_id", nullable = false)
+        IdentityCategory category;
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+
+        identityFactory = sessionFactory("identity", 0, IdentityCategory.class, IdentityProduct.class);
+        pooledFactory = sessionFactory("pooled", 50, Category.class, Product.class);
+
+        identityCategoryId = identityFactory.fromTransaction(session -> {
+            IdentityCategory category = new IdentityCategory();
+            category.name = "Electronics";
+            session.persist(category);
+            return category.id;
+        });
+        pooledCategoryId = pooledFactory.fromTransaction(session -> {
+            Category category = new Category(null, "Electronics", "Electronic devices", null);
+            session.persist(category);
+            return category.getId();
+        });
+    }
+
+    // Tables vidées entre les itérations : le coût des index ne dérive pas au fil de la mesure
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        identityFactory.inTransaction(session -> session.createMutationQuery("delete from IdentityProduct").executeUpdate());
+        pooledFactory.inTransaction(session -> session.createMutationQuery("delete from Product").executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        identityFactory.close();
+        pooledFactory.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void identityIds() {
+        long run = invocation++;
+        identityFactory.inTransaction(session -> {
+            IdentityCategory category = session.getReference(IdentityCategory.class, identityCategoryId);
+            for (int i = 0; i < rows; i++) {
+                IdentityProduct product = new IdentityProduct();
+                product.name = "product-" + run + "-" + i;
+                product.price = 10.0 + i;
+                product.description = "description";
+                product.expiryDate = new Date();
+                product.category = category;
+                session.persist(product);
+            }
+        });
+    }
+
+    @Benchmark
+    public void pooledBatched() {
+        long run = invocation++;
+        pooledFactory.inTransaction(session -> {
+            Category category = session.getReference(Category.class, pooledCategoryId);
+            for (int i = 0; i < rows; i++) {
+                session.persist(new Product(null, "product-" + run + "-" + i, 10.0 + i, "description", new Date(), category));
+            }
+        });
+    }
+
+    private SessionFactory sessionFactory(String database, int batchSize, Class<?>... entities) {
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : entities) {
+            configuration.addAnnotatedClass(entity);
+        }
+        return configuration
+                .setProperty("hibernate.connection.url", "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + database + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+}
@@ -0,0 +1,94 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.dto.UserPrincipal;
+import com.obs.productmanagement.dto.UserResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Coût d'authentification d'une requête :
+ *  - legacyFourParses : ancien filtre (subject, userId, name puis isTokenValid),
+ *    chacun reconstruisant un parser et re-vérifiant le HMAC ;
+ *  - singleParse      : JwtService.extractPrincipal, un seul parse avec le parser partagé ;
+ *  - cachedPrincipal  : même appel pour un token déjà vu, servi par VerifiedTokenCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private JwtService jwtService;
+    private JwtService cachingJwtService;
+    private String token;
+    private String cachedToken;
+
+    private Key legacyKey;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        UserResponse user = new UserResponse(42L, "Salem", 25, "salem@example.com");
+        Path keystore = Files.createTempDirectory("jmh-jwt").resolve("jwt-keystore.p12");
+        JwtKeyRing keyRing = new JwtKeyRing(keystore, "changeit", Duration.ofDays(7), Duration.ofDays(2));
+
+        // cache de taille 0 : chaque appel re-vérifie la signature
+        jwtService = new JwtService(keyRing, new VerifiedTokenCache(0));
+        token = jwtService.generateToken(user);
+
+        cachingJwtService = new JwtService(keyRing, new VerifiedTokenCache(10_000));
+        cachedToken = cachingJwtService.generateToken(user);
+        cachingJwtService.extractPrincipal(cachedToken);
+
+        // même forme de token, signé avec une clé connue du benchmark
+        legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        Date now = new Date();
+        legacyToken = Jwts.builder()
+                .setSubject(user.email())
+                .claim("userId", user.id())
+                .claim("name", user.name())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 24 * 60 * 60 * 1000))
+                .signWith(legacyKey)
+                .compact();
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole bh) {
+        bh.consume(legacyClaims().getSubject());
+        bh.consume(legacyClaims().get("userId", Long.class));
+        bh.consume(legacyClaims().get("name", String.class));
+        bh.consume(legacyClaims());
+    }
+
+    @Benchmark
+    public UserPrincipal singleParse() {
+        return jwtService.extractPrincipal(token);
+    }
+
+    @Benchmark
+    public UserPrincipal cachedPrincipal() {
+        return cachingJwtService.extractPrincipal(cachedToken);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey)
+                .build()
+                .parseClaimsJws(legacyToken)
+                .getBody();
+    }
+}
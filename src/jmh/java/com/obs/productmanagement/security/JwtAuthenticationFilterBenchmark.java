@@ -0,0 +1,78 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JwtAuthenticationFilter de bout en bout (requête, réponse et chaîne simulées) :
+ * token déjà vérifié (cache), token vérifié à chaque fois, token invalide (réponse 401)
+ * et requête anonyme.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter verifyingFilter;
+    private String bearer;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path keystore = Files.createTempDirectory("jmh-jwt").resolve("jwt-keystore.p12");
+        JwtKeyRing keyRing = new JwtKeyRing(keystore, "changeit", Duration.ofDays(7), Duration.ofDays(2));
+
+        JwtService cachingService = new JwtService(keyRing, new VerifiedTokenCache(10_000));
+        cachingFilter = new JwtAuthenticationFilter(cachingService);
+        verifyingFilter = new JwtAuthenticationFilter(new JwtService(keyRing, new VerifiedTokenCache(0)));
+
+        bearer = "Bearer " + cachingService.generateToken(new UserResponse(42L, "Salem", 25, "salem@example.com"));
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public int cachedToken() throws Exception {
+        return filter(cachingFilter, bearer);
+    }
+
+    @Benchmark
+    public int verifiedToken() throws Exception {
+        return filter(verifyingFilter, bearer);
+    }
+
+    @Benchmark
+    public int invalidToken() throws Exception {
+        return filter(cachingFilter, "Bearer not.a.jwt");
+    }
+
+    @Benchmark
+    public int anonymous() throws Exception {
+        return filter(cachingFilter, null);
+    }
+
+    private static int filter(JwtAuthenticationFilter filter, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,49 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Émission d'un token (login) et extraction de claims isolées, sans cache de principals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UserResponse user;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        Path keystore = Files.createTempDirectory("jmh-jwt").resolve("jwt-keystore.p12");
+        JwtKeyRing keyRing = new JwtKeyRing(keystore, "changeit", Duration.ofDays(7), Duration.ofDays(2));
+        jwtService = new JwtService(keyRing, new VerifiedTokenCache(0));
+        user = new UserResponse(42L, "Salem", 25, "salem@example.com");
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractSubject() {
+        return jwtService.extractSubject(token);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+}
@@ -0,0 +1,48 @@
+package com.obs.productmanagement.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Coût d'une connexion selon security.password.bcrypt-strength : matches() est payé à chaque
+ * login (y compris pour un login inconnu, via le hash factice), encode() à l'inscription et au re-hachage.
+ * Chaque +1 double le temps ; choisir la valeur la plus haute qui tient le p99 de login visé
+ * avec le nombre de cœurs disponibles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = SecurityConfig.createPasswordEncoder(strength);
+        hash = encoder.encode("secret123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("secret123", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("secret123");
+    }
+
+    @Benchmark
+    public boolean legacyPlaintextMatches() {
+        return encoder.matches("secret123", "secret123");
+    }
+}
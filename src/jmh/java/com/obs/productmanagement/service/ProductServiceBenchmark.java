@@ -0,0 +1,156 @@
+package com.obs.productmanagement.service;
+
+import com.obs.productmanagement.ProductmanagementApplication;
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductPageResponse;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import com.obs.productmanagement.repository.CategoryRepository;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Endpoints de lecture de ProductServiceImpl sur le vrai contexte Spring (sans serveur web)
+ * et une base H2 en mémoire migrée par Flyway, remplie de `products` produits répartis
+ * sur CATEGORIES catégories. Mesure la chaîne service + repository + JDBC, pas le HTTP.
+ * Filtrage aux deux extrêmes de sélectivité : filterSelective (une catégorie, un prix, un mois
+ * d'expiration : au plus quelques produits) et filterBroad (presque tout le catalogue).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+    private IProductService productService;
+    private Long categoryId;
+    private String deepCursor;
+    private ProductFilter selective;
+    private ProductFilter broad;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Arguments de ligne de commande : priorité sur l'application.properties (MySQL) du classpath
+        context = new SpringApplicationBuilder(ProductmanagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        // Les entités IDENTITY de ProductInsertBenchmark sont aussi scannées : pas de validation
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--security.jwt.keystore.path=" + Files.createTempDirectory("jmh-jwt").resolve("jwt-keystore.p12"),
+                        "--security.jwt.keystore.password=jmh-keystore-password",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.obs.productmanagement=WARN"
+                );
+
+        seed(context.getBean(CategoryRepository.class), context.getBean(ProductRepository.class));
+        context.getBean(MostExpensiveIndex.class).rebuild();
+        productService = context.getBean(IProductService.class);
+
+        // Curseur au milieu du catalogue : la page suivante doit rester un seek sur l'index
+        ProductPageResponse page = productService.getProductsPage(null, PAGE_SIZE, "price");
+        for (int i = 1; i < products / PAGE_SIZE / 2 && page.nextCursor() != null; i++) {
+            page = productService.getProductsPage(page.nextCursor(), PAGE_SIZE, null);
+        }
+        deepCursor = page.nextCursor();
+
+        long now = System.currentTimeMillis();
+        selective = new ProductFilter(500.0, 501.0, new Date(now), new Date(now + TimeUnit.DAYS.toMillis(30)), List.of(categoryId));
+        broad = new ProductFilter(1.0, null, new Date(now), null, null);
+    }
+
+    private void seed(CategoryRepository categoryRepository, ProductRepository productRepository) {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int c = 0; c < CATEGORIES; c++) {
+            categories.add(new Category(null, "bench-category-" + c, "Benchmark category " + c, null));
+        }
+        categories = categoryRepository.saveAll(categories);
+        categoryId = categories.get(0).getId();
+
+        // Expirations réparties sur deux ans, pour les filtres par date
+        long now = System.currentTimeMillis();
+        List<Product> chunk = new ArrayList<>(1_000);
+        for (int i = 0; i < products; i++) {
+            Date expiry = new Date(now + TimeUnit.DAYS.toMillis(1 + i % 730));
+            chunk.add(new Product(null, "bench-product-" + i, (double) (i % 997) + 0.99,
+                    "Benchmark product " + i, expiry, categories.get(i % CATEGORIES)));
+            if (chunk.size() == 1_000) {
+                productRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        productRepository.saveAll(chunk);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<ProductResponse> getProductsByCategory() {
+        return productService.getProductsByCategory(categoryId);
+    }
+
+    @Benchmark
+    public List<ProductResponse> getMostExpensiveProducts() {
+        return productService.getMostExpensiveProducts();
+    }
+
+    @Benchmark
+    public List<ProductResponse> getMostExpensiveProductsByCategory() {
+        return productService.getMostExpensiveProductsByCategory(categoryId);
+    }
+
+    @Benchmark
+    public ProductPageResponse firstPageByPrice() {
+        return productService.getProductsPage(null, PAGE_SIZE, "price");
+    }
+
+    @Benchmark
+    public ProductPageResponse deepPageByPrice() {
+        return productService.getProductsPage(deepCursor, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public ProductFilterResponse filterSelective() {
+        return productService.filterProducts(selective, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ProductFilterResponse filterBroad() {
+        return productService.filterProducts(broad, PAGE_SIZE);
+    }
+}
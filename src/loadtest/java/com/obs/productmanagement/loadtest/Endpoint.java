@@ -0,0 +1,118 @@
+package com.obs.productmanagement.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Appels rejoués par le générateur de charge, regroupés dans le rapport sous leur libellé
+ * (chemin avec ses variables, pas l'URL concrète).
+ */
+public enum Endpoint {
+
+    LIST_CATEGORIES("GET /api/categories") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/categories"));
+        }
+    },
+    LIST_PRODUCTS("GET /api/products") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/products"));
+        }
+    },
+    GET_PRODUCT("GET /api/products/{id}") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/products/" + w.anySeedProduct(random).id()));
+        }
+    },
+    PRODUCTS_BY_CATEGORY("GET /api/products/by-category/{id}") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/products/by-category/" + w.anySeedCategory(random)));
+        }
+    },
+    MOST_EXPENSIVE("GET /api/products/most-expensive") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/products/most-expensive"));
+        }
+    },
+    MOST_EXPENSIVE_BY_CATEGORY("GET /api/products/by-category/{id}/most-expensive") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.get(user, "/api/products/by-category/" + w.anySeedCategory(random) + "/most-expensive"));
+        }
+    },
+    CREATE_CATEGORY("POST /api/categories") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.post(user, "/api/categories", w.newCategoryBody()));
+        }
+    },
+    CREATE_PRODUCT("POST /api/products") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            Workload.ProductRef product = w.newProduct(w.anySeedCategory(random), random);
+            return new Call(this, w.post(user, "/api/products", w.productBody(product)),
+                    body -> w.created(product.withId(w.idOf(body))));
+        }
+    },
+    UPDATE_PRODUCT("PUT /api/products/{id}") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            // Les produits d'amorçage ne sont jamais supprimés : pas de 404 parasite
+            Workload.ProductRef product = w.anySeedProduct(random).withPrice(1 + random.nextInt(5_000));
+            return new Call(this, w.put(user, "/api/products/" + product.id(), w.productBody(product)));
+        }
+    },
+    // Supprime un produit créé pendant le run ; tant qu'il n'y en a pas, on en crée un
+    DELETE_PRODUCT("DELETE /api/products/{id}") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            Workload.ProductRef product = w.takeCreated();
+            if (product == null) {
+                return CREATE_PRODUCT.call(w, user, random);
+            }
+            return new Call(this, w.delete(user, "/api/products/" + product.id()));
+        }
+    },
+    CREATE_USER("POST /api/users") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.post(null, "/api/users", w.newUserBody()));
+        }
+    },
+    LOGIN("POST /api/auth/login") {
+        @Override
+        Call call(Workload w, Workload.VirtualUser user, Random random) {
+            return new Call(this, w.post(null, "/api/auth/login", w.loginBody(user)));
+        }
+    };
+
+    private final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    abstract Call call(Workload workload, Workload.VirtualUser user, Random random);
+
+    /**
+     * Requête prête à partir ; onSuccess reçoit le corps des réponses 2xx.
+     */
+    record Call(Endpoint endpoint, HttpRequest request, Consumer<String> onSuccess) {
+        // Corps ignoré : il n'est alors pas décompressé (CPU du générateur non compté)
+        static final Consumer<String> IGNORE = body -> { };
+
+        Call(Endpoint endpoint, HttpRequest request) {
+            this(endpoint, request, IGNORE);
+        }
+    }
+}
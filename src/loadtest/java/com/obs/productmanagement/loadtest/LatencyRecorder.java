@@ -0,0 +1,180 @@
+package com.obs.productmanagement.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latences brutes par endpoint (nanosecondes), triées seulement au moment du rapport :
+ * quelques centaines de milliers de valeurs au plus, les percentiles sont donc exacts.
+ */
+public class LatencyRecorder {
+
+    private static final class Samples {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private long bytes;
+
+        void add(long latencyNanos, boolean success, long bodyBytes) {
+            lock.lock();
+            try {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latencyNanos;
+                bytes += bodyBytes;
+                if (!success) {
+                    errors++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long[] sorted() {
+            lock.lock();
+            try {
+                long[] copy = Arrays.copyOf(latencies, count);
+                Arrays.sort(copy);
+                return copy;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int errors() {
+            lock.lock();
+            try {
+                return errors;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long bytes() {
+            lock.lock();
+            try {
+                return bytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Résumé tous endpoints confondus d'un palier, pour tracer la courbe débit / latence.
+     * bytesPerRequest : corps reçus tels que transmis (compressés ou non) ;
+     * cpuPerRequest : temps CPU de la JVM du générateur (serveur compris avec --boot), en ns.
+     */
+    public record Summary(int targetRps, double achievedRps, int errors, long p50, long p99, long max,
+                          double bytesPerRequest, double cpuPerRequest) {}
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+    private long cpuNanos;
+
+    public LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+    }
+
+    public void record(Endpoint endpoint, long latencyNanos, boolean success, long bodyBytes) {
+        samples.get(endpoint).add(latencyNanos, success, bodyBytes);
+    }
+
+    // CPU consommé par la JVM pendant la fenêtre mesurée
+    public void cpu(long nanos) {
+        this.cpuNanos = nanos;
+    }
+
+    public Summary summary(int targetRps, double measuredSeconds) {
+        long[] all = all();
+        int errors = samples.values().stream().mapToInt(Samples::errors).sum();
+        if (all.length == 0) {
+            return new Summary(targetRps, 0, errors, 0, 0, 0, 0, 0);
+        }
+        long bytes = samples.values().stream().mapToLong(Samples::bytes).sum();
+        return new Summary(targetRps, all.length / measuredSeconds, errors,
+                percentile(all, 50), percentile(all, 99), all[all.length - 1],
+                bytes / (double) all.length, cpuNanos / (double) all.length);
+    }
+
+    public void report(PrintStream out, double measuredSeconds) {
+        String format = "%-52s %8s %7s %9s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "Endpoint", "Count", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms", "KB/req");
+
+        int allErrors = 0;
+        long allBytes = 0;
+        for (Map.Entry<Endpoint, Samples> entry : samples.entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            if (sorted.length == 0) {
+                continue;
+            }
+            int errors = entry.getValue().errors();
+            long bytes = entry.getValue().bytes();
+            row(out, format, entry.getKey().label(), sorted, errors, bytes, measuredSeconds);
+            allErrors += errors;
+            allBytes += bytes;
+        }
+        long[] all = all();
+        if (all.length > 0) {
+            row(out, format, "TOTAL", all, allErrors, allBytes, measuredSeconds);
+            out.printf("Received %.1f KB/s of response bodies, process CPU %.3f ms/req%n",
+                    allBytes / 1024.0 / measuredSeconds, cpuNanos / (double) all.length / 1e6);
+        }
+    }
+
+    public static void curve(PrintStream out, String title, List<Summary> stages) {
+        curve(out, title, "Target req/s", stages.stream().map(s -> String.valueOf(s.targetRps())).toList(), stages);
+    }
+
+    // Une ligne par palier, libellée par labels (débit visé, codage demandé, ...)
+    public static void curve(PrintStream out, String title, String labelHeader, List<String> labels, List<Summary> stages) {
+        String format = "%-14s %12s %9s %9s %9s %9s %9s %11s%n";
+        out.println(title);
+        out.printf(format, labelHeader, "Achieved", "Errors", "p50 ms", "p99 ms", "Max ms", "KB/req", "CPU ms/req");
+        for (int i = 0; i < stages.size(); i++) {
+            Summary s = stages.get(i);
+            out.printf(format, labels.get(i), String.format("%.1f", s.achievedRps()), s.errors(),
+                    millis(s.p50()), millis(s.p99()), millis(s.max()),
+                    String.format("%.2f", s.bytesPerRequest() / 1024), String.format("%.3f", s.cpuPerRequest() / 1e6));
+        }
+    }
+
+    private long[] all() {
+        long[] all = new long[0];
+        for (Samples s : samples.values()) {
+            long[] sorted = s.sorted();
+            long[] merged = Arrays.copyOf(all, all.length + sorted.length);
+            System.arraycopy(sorted, 0, merged, all.length, sorted.length);
+            all = merged;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static void row(PrintStream out, String format, String label, long[] sorted, int errors, long bytes,
+                            double seconds) {
+        out.printf(format, label, sorted.length, errors,
+                String.format("%.1f", sorted.length / seconds),
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)), millis(sorted[sorted.length - 1]),
+                String.format("%.2f", bytes / 1024.0 / sorted.length));
+    }
+
+    // Rang le plus proche
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
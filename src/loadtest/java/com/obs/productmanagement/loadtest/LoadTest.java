@@ -0,0 +1,151 @@
+package com.obs.productmanagement.loadtest;
+
+import com.obs.productmanagement.ProductmanagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur de charge en modèle ouvert : les requêtes partent à intervalle fixe (1/rps),
+ * quel que soit le temps de réponse, avec au plus `concurrency` requêtes en vol (client HTTP
+ * asynchrone du JDK). La latence est mesurée depuis l'instant d'envoi prévu : l'attente d'une
+ * place libre quand le serveur sature est comptée, au lieu d'être masquée (coordinated omission).
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--boot --rps=300 --duration=60s"
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--compare-threads --rps=200,800,3200 --concurrency=2000"
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--boot --scenario=read --catalog=2000 --accept-encoding=identity,gzip,deflate"
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        if (options.compareThreads()) {
+            List<LatencyRecorder.Summary> platform = boot(options, "h2");
+            List<LatencyRecorder.Summary> virtual = boot(options, "h2,virtual-threads");
+            System.out.println();
+            LatencyRecorder.curve(System.out, "Platform threads (Tomcat pool)", platform);
+            System.out.println();
+            LatencyRecorder.curve(System.out, "Virtual threads (profile virtual-threads)", virtual);
+        } else if (options.boot()) {
+            boot(options, options.profiles().isBlank() ? "h2" : "h2," + options.profiles());
+        } else {
+            runStages(options.baseUrl(), options);
+        }
+    }
+
+    // Démarre l'application dans la JVM sur un port libre, le temps des paliers
+    private static List<LatencyRecorder.Summary> boot(LoadTestOptions options, String profiles) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ProductmanagementApplication.class)
+                .profiles(profiles.split(","))
+                // Tous les utilisateurs virtuels partagent 127.0.0.1 : sans ce relâchement le scénario
+                // auth mesurerait le limiteur de connexions et non le coût du hachage
+                // Keystore JWT jetable : pas de mot de passe par défaut dans la configuration
+                .run("--server.port=0", "--spring.main.banner-mode=off",
+                        "--security.jwt.keystore.path=" + Files.createTempDirectory("loadtest-jwt").resolve("jwt-keystore.p12"),
+                        "--security.jwt.keystore.password=loadtest-keystore-password",
+                        "--security.login.rate-limit.per-ip.capacity=1000000",
+                        "--security.login.rate-limit.per-login.capacity=1000000")) {
+            System.out.printf("Application started with profiles %s%n", profiles);
+            return runStages(URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port")), options);
+        }
+    }
+
+    private static List<LatencyRecorder.Summary> runStages(URI baseUrl, LoadTestOptions options) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Workload workload = new Workload(client, baseUrl);
+        System.out.printf("Target %s, %d users, scenario %s%n", baseUrl, options.users(), options.scenario());
+        workload.setUp(options.users(), options.catalog(), options.scenario());
+
+        double seconds = options.duration().toNanos() / 1e9;
+        List<LatencyRecorder.Summary> stages = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (String encoding : options.acceptEncodings()) {
+            workload.acceptEncoding(encoding);
+            for (int rps : options.rates()) {
+                System.out.printf("%nRunning %d req/s, Accept-Encoding %s, max %d in flight, warmup %ss, measure %ss%n",
+                        rps, encoding, options.concurrency(), options.warmup().toSeconds(), options.duration().toSeconds());
+                LatencyRecorder recorder = new LatencyRecorder();
+                run(client, workload, rps, options, recorder);
+                recorder.report(System.out, seconds);
+                stages.add(recorder.summary(rps, seconds));
+                labels.add(options.acceptEncodings().size() > 1 ? encoding + " @" + rps : String.valueOf(rps));
+            }
+        }
+        if (stages.size() > 1) {
+            System.out.println();
+            LatencyRecorder.curve(System.out, "Throughput / latency / bytes / CPU",
+                    options.acceptEncodings().size() > 1 ? "Encoding @rps" : "Target req/s", labels, stages);
+        }
+        return stages;
+    }
+
+    private static void run(HttpClient client, Workload workload, int rps, LoadTestOptions options, LatencyRecorder recorder)
+            throws InterruptedException {
+        List<Workload.VirtualUser> users = workload.users();
+        Random random = new Random(42);
+        Semaphore inFlight = new Semaphore(options.concurrency());
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        // CPU de toute la JVM (serveur compris avec --boot), relevé au début de la fenêtre mesurée
+        long cpuAtMeasureStart = -1;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (cpuAtMeasureStart < 0 && intended >= measureFrom) {
+                cpuAtMeasureStart = processCpuNanos();
+            }
+            inFlight.acquire();
+
+            Workload.VirtualUser user = users.get((int) (i % users.size()));
+            Endpoint.Call call = user.profile().pick(random).call(workload, user, random);
+            // Octets reçus tels que transmis : le corps n'est décompressé que s'il est lu
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        boolean success = error == null && response.statusCode() / 100 == 2;
+                        if (intended >= measureFrom) {
+                            recorder.record(call.endpoint(), System.nanoTime() - intended, success,
+                                    error == null ? response.body().length : 0);
+                        }
+                        if (success && call.onSuccess() != Endpoint.Call.IGNORE) {
+                            call.onSuccess().accept(Workload.decode(response));
+                        }
+                    });
+        }
+        // Attend les dernières réponses
+        inFlight.acquire(options.concurrency());
+        if (cpuAtMeasureStart >= 0) {
+            recorder.cpu(processCpuNanos() - cpuAtMeasureStart);
+        }
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+}
@@ -0,0 +1,88 @@
+package com.obs.productmanagement.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Options de LoadTest, au format --cle=valeur :
+ * <pre>
+ *   --base-url=http://localhost:8080   API ciblée (ignorée avec --boot)
+ *   --boot                             démarre l'application dans la JVM, profil h2, port libre
+ *   --profiles=virtual-threads         profils Spring ajoutés à h2 avec --boot
+ *   --compare-threads                  deux démarrages, threads plateforme puis virtual-threads, mêmes paliers
+ *   --rps=200  ou  --rps=100,400,1600  débit visé, un palier par valeur (modèle ouvert : les arrivées
+ *                                      ne dépendent pas des réponses)
+ *   --concurrency=64                   requêtes en vol au maximum
+ *   --duration=30s  --warmup=5s        mesure de chaque palier, précédée d'un échauffement non compté
+ *   --users=10                         utilisateurs créés et connectés avant la mesure
+ *   --catalog=0                        produits importés en plus (POST /api/products/bulk) avant la mesure
+ *   --accept-encoding=identity         en-tête Accept-Encoding envoyé : identity (aucun), gzip, deflate ;
+ *                                      une liste (identity,gzip,deflate) rejoue les paliers pour chaque valeur
+ *   --scenario=mixed                   mixed | read | write | most-expensive | auth
+ * </pre>
+ */
+public record LoadTestOptions(
+        URI baseUrl,
+        boolean boot,
+        String profiles,
+        boolean compareThreads,
+        List<Integer> rates,
+        int concurrency,
+        Duration duration,
+        Duration warmup,
+        int users,
+        int catalog,
+        List<String> acceptEncodings,
+        Scenario scenario
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument '" + arg + "', expected --name=value");
+            }
+            int eq = arg.indexOf('=');
+            values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Boolean.parseBoolean(values.getOrDefault("boot", "false")),
+                values.getOrDefault("profiles", ""),
+                Boolean.parseBoolean(values.getOrDefault("compare-threads", "false")),
+                Arrays.stream(values.getOrDefault("rps", "200").split(",")).map(v -> Integer.parseInt(v.trim())).toList(),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "5s")),
+                Integer.parseInt(values.getOrDefault("users", "10")),
+                Integer.parseInt(values.getOrDefault("catalog", "0")),
+                Arrays.stream(values.getOrDefault("accept-encoding", "identity").split(",")).map(String::trim).toList(),
+                Scenario.fromOption(values.getOrDefault("scenario", "mixed"))
+        );
+        if (options.rates().stream().anyMatch(rps -> rps <= 0) || options.concurrency() <= 0 || options.users() <= 0) {
+            throw new IllegalArgumentException("rps, concurrency and users must be > 0");
+        }
+        if (options.catalog() < 0) {
+            throw new IllegalArgumentException("catalog must be >= 0");
+        }
+        return options;
+    }
+
+    // "30s", "2m", "500ms" ou un nombre de secondes
+    private static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s") || v.endsWith("m") || v.endsWith("h")) {
+            return Duration.parse("PT" + v.toUpperCase(Locale.ROOT));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,67 @@
+package com.obs.productmanagement.loadtest;
+
+import java.util.*;
+
+/**
+ * Profils d'utilisateurs repris de l'ancien run-scenarios.sh : chaque profil tire
+ * ses appels selon des poids fixes. En mode mixed, les utilisateurs sont répartis
+ * comme dans le script (4 READ, 3 WRITE, 3 MOST_EXPENSIVE sur 10).
+ */
+public enum Scenario {
+
+    READ(Map.of(
+            Endpoint.LIST_CATEGORIES, 1,
+            Endpoint.LIST_PRODUCTS, 6,
+            Endpoint.GET_PRODUCT, 1,
+            Endpoint.PRODUCTS_BY_CATEGORY, 1
+    )),
+    WRITE(Map.of(
+            Endpoint.CREATE_CATEGORY, 1,
+            Endpoint.CREATE_PRODUCT, 2,
+            Endpoint.UPDATE_PRODUCT, 1,
+            Endpoint.DELETE_PRODUCT, 1
+    )),
+    MOST_EXPENSIVE(Map.of(
+            Endpoint.MOST_EXPENSIVE, 4,
+            Endpoint.MOST_EXPENSIVE_BY_CATEGORY, 1
+    )),
+    AUTH(Map.of(
+            Endpoint.CREATE_USER, 1,
+            Endpoint.LOGIN, 3
+    )),
+    MIXED(Map.of());
+
+    private static final Scenario[] MIXED_PROFILES = {
+            READ, READ, READ, READ, WRITE, WRITE, WRITE, MOST_EXPENSIVE, MOST_EXPENSIVE, MOST_EXPENSIVE
+    };
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    Scenario(Map<Endpoint, Integer> weights) {
+        // Ordre stable (celui de l'enum) pour que deux runs avec la même graine tirent la même séquence
+        List<Endpoint> ordered = new ArrayList<>(new TreeMap<>(weights).keySet());
+        endpoints = ordered.toArray(Endpoint[]::new);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static Scenario fromOption(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    // Profil du n-ième utilisateur virtuel
+    public Scenario profileFor(int userIndex) {
+        return this == MIXED ? MIXED_PROFILES[userIndex % MIXED_PROFILES.length] : this;
+    }
+
+    public Endpoint pick(Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = Arrays.binarySearch(cumulativeWeights, draw + 1);
+        return endpoints[i >= 0 ? i : -i - 1];
+    }
+}
@@ -0,0 +1,258 @@
+package com.obs.productmanagement.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Données partagées par un run : client HTTP, catégories et produits d'amorçage,
+ * utilisateurs virtuels connectés et produits créés pendant la mesure.
+ * Les noms sont suffixés par un identifiant de run : on peut relancer contre la même base.
+ */
+public class Workload {
+
+    public record VirtualUser(String email, String token, Scenario profile) {}
+
+    public record ProductRef(Long id, String name, double price, Long categoryId) {
+        ProductRef withId(Long newId) {
+            return new ProductRef(newId, name, price, categoryId);
+        }
+
+        ProductRef withPrice(double newPrice) {
+            return new ProductRef(id, name, newPrice, categoryId);
+        }
+    }
+
+    private static final String PASSWORD = "secret123";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger sequence = new AtomicInteger();
+    // age est unique en base : chaque run part d'une plage différente, partagée par les Workload d'une même JVM
+    private static final AtomicInteger AGE = new AtomicInteger(12 + (int) (System.currentTimeMillis() / 1000 % 20_000) * 100_000);
+    private final long expiryDate = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(60);
+
+    private final List<Long> seedCategories = new ArrayList<>();
+    private final List<ProductRef> seedProducts = new ArrayList<>();
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final Deque<ProductRef> created = new ConcurrentLinkedDeque<>();
+    // Accept-Encoding des requêtes mesurées, null pour identity
+    private volatile String acceptEncoding;
+
+    public Workload(HttpClient client, URI baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    // ---------- Amorçage (séquentiel, comme l'ancien script) ----------
+
+    public void setUp(int userCount, int catalog, Scenario scenario) {
+        VirtualUser seed = signUp(Scenario.READ);
+        for (int c = 0; c < 3; c++) {
+            seedCategories.add(idOf(send(post(seed, "/api/categories", newCategoryBody()))));
+        }
+        for (int i = 0; i < 9; i++) {
+            ProductRef product = newProduct(seedCategories.get(i % 3), new Random(i));
+            seedProducts.add(product.withId(idOf(send(post(seed, "/api/products", productBody(product))))));
+        }
+        if (catalog > 0) {
+            importCatalog(seed, catalog);
+        }
+        for (int i = 0; i < userCount; i++) {
+            users.add(signUp(scenario.profileFor(i)));
+        }
+    }
+
+    // Catalogue de taille réaliste pour les listes (et donc pour la compression), en un seul import
+    private void importCatalog(VirtualUser seed, int count) {
+        Random random = new Random(count);
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < count; i++) {
+            body.add(productBody(newProduct(seedCategories.get(i % seedCategories.size()), random)));
+        }
+        send(post(seed, "/api/products/bulk", body.toString()));
+    }
+
+    public void acceptEncoding(String encoding) {
+        this.acceptEncoding = "identity".equalsIgnoreCase(encoding) ? null : encoding;
+    }
+
+    // Corps tel que reçu, décompressé selon Content-Encoding
+    static String decode(HttpResponse<byte[]> response) {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        try (InputStream in = switch (encoding) {
+            case "gzip" -> new GZIPInputStream(new ByteArrayInputStream(response.body()));
+            case "deflate" -> new InflaterInputStream(new ByteArrayInputStream(response.body()));
+            default -> new ByteArrayInputStream(response.body());
+        }) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private VirtualUser signUp(Scenario profile) {
+        String email = "loaduser_" + runId + "_" + sequence.incrementAndGet() + "@test.com";
+        send(post(null, "/api/users", userBody(email)));
+        String token;
+        try {
+            token = objectMapper.readTree(send(post(null, "/api/auth/login", loginBody(email)))).path("token").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new VirtualUser(email, token, profile);
+    }
+
+    private String send(HttpRequest request) {
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reach " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during setup", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Setup failed: " + request.method() + " " + request.uri()
+                    + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    // ---------- Accès pour les Endpoint ----------
+
+    public List<VirtualUser> users() {
+        return users;
+    }
+
+    Long anySeedCategory(Random random) {
+        return seedCategories.get(random.nextInt(seedCategories.size()));
+    }
+
+    ProductRef anySeedProduct(Random random) {
+        return seedProducts.get(random.nextInt(seedProducts.size()));
+    }
+
+    ProductRef newProduct(Long categoryId, Random random) {
+        return new ProductRef(null, "LoadProd_" + runId + "_" + sequence.incrementAndGet(),
+                10 + random.nextInt(2_000), categoryId);
+    }
+
+    void created(ProductRef product) {
+        created.add(product);
+    }
+
+    ProductRef takeCreated() {
+        return created.pollFirst();
+    }
+
+    Long idOf(String body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- Corps JSON ----------
+
+    String newCategoryBody() {
+        int n = sequence.incrementAndGet();
+        return json(Map.of("name", "LoadCat_" + runId + "_" + n, "description", "Load test category " + n));
+    }
+
+    String productBody(ProductRef product) {
+        return json(Map.of(
+                "name", product.name(),
+                "description", "Load test product",
+                "price", product.price(),
+                "expiryDate", expiryDate,
+                "categoryId", product.categoryId()
+        ));
+    }
+
+    String newUserBody() {
+        return userBody("loaduser_" + runId + "_" + sequence.incrementAndGet() + "@test.com");
+    }
+
+    private String userBody(String email) {
+        return json(Map.of(
+                "name", email.substring(0, email.indexOf('@')),
+                "age", AGE.getAndIncrement(),
+                "email", email,
+                "password", PASSWORD
+        ));
+    }
+
+    String loginBody(VirtualUser user) {
+        return loginBody(user.email());
+    }
+
+    private String loginBody(String email) {
+        return json(Map.of("login", email, "password", PASSWORD));
+    }
+
+    private String json(Map<String, Object> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- Requêtes ----------
+
+    HttpRequest get(VirtualUser user, String path) {
+        return request(user, path).GET().build();
+    }
+
+    HttpRequest post(VirtualUser user, String path, String body) {
+        return request(user, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    HttpRequest put(VirtualUser user, String path, String body) {
+        return request(user, path)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    HttpRequest delete(VirtualUser user, String path) {
+        return request(user, path).DELETE().build();
+    }
+
+    // user null : endpoint public, sans en-tête Authorization
+    private HttpRequest.Builder request(VirtualUser user, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + user.token());
+        }
+        String encoding = acceptEncoding;
+        if (encoding != null) {
+            builder.header("Accept-Encoding", encoding);
+        }
+        return builder;
+    }
+}
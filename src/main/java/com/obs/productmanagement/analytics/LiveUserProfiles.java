@@ -0,0 +1,200 @@
+package com.obs.productmanagement.analytics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.obs.productmanagement.dto.UserProfileResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Profils d'usage en direct : les mêmes événements que ceux écrits dans logs/app.jsonl
+ * (userId du MDC + champ "event") sont comptés au fil de l'eau, sans relire les logs.
+ * <p>
+ * Un appender Logback attaché au logger des services appelle {@link #record(long, String)} sur
+ * le thread de la requête : une lecture de ConcurrentHashMap puis un LongAdder, sans verrou.
+ * La mémoire est bornée : au plus {@code max-users} utilisateurs suivis, ceux inactifs depuis
+ * {@code idle-timeout} sont retirés par la purge ; au-delà de la limite, les événements des
+ * nouveaux utilisateurs sont ignorés (et comptés) jusqu'à la purge suivante.
+ */
+@Component
+public class LiveUserProfiles {
+
+    // Nombre maximal de types d'événements distincts (DB_READ, DB_WRITE, ...)
+    static final int MAX_EVENT_TYPES = 32;
+
+    private static final class Activity {
+        private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(MAX_EVENT_TYPES);
+        private volatile long lastSeenMillis;
+
+        Activity(long now) {
+            this.lastSeenMillis = now;
+        }
+
+        void add(int eventType, long now) {
+            LongAdder counter = counts.get(eventType);
+            if (counter == null) {
+                counts.compareAndSet(eventType, null, new LongAdder());
+                counter = counts.get(eventType);
+            }
+            counter.increment();
+            // Écriture non atomique : deux requêtes simultanées écrivent des instants presque égaux
+            if (now > lastSeenMillis) {
+                lastSeenMillis = now;
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Activity> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> eventTypes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> eventNames = new AtomicReferenceArray<>(MAX_EVENT_TYPES);
+    private final AtomicInteger nextEventType = new AtomicInteger();
+    private final LongAdder untrackedEvents = new LongAdder();
+    private final int maxUsers;
+    private final long idleTimeoutMillis;
+    private final LongSupplier clock;
+    private final String loggerName;
+
+    private UserEventAppender appender;
+
+    @Autowired
+    public LiveUserProfiles(
+            @Value("${profiling.users.max-users:100000}") int maxUsers,
+            @Value("${profiling.users.idle-timeout:PT30M}") Duration idleTimeout,
+            @Value("${profiling.users.logger:com.obs.productmanagement.service}") String loggerName
+    ) {
+        this(maxUsers, idleTimeout, loggerName, System::currentTimeMillis);
+    }
+
+    public LiveUserProfiles(int maxUsers, Duration idleTimeout, String loggerName, LongSupplier clock) {
+        this.maxUsers = maxUsers;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.loggerName = loggerName;
+        this.clock = clock;
+    }
+
+    // ---------- Branchement sur Logback ----------
+
+    @PostConstruct
+    public void attach() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        appender = new UserEventAppender(this);
+        appender.setContext(context);
+        appender.setName("LIVE_USER_PROFILES");
+        appender.start();
+        context.getLogger(loggerName).addAppender(appender);
+    }
+
+    @PreDestroy
+    public void detach() {
+        if (appender != null) {
+            Logger logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(loggerName);
+            logger.detachAppender(appender);
+            appender.stop();
+        }
+    }
+
+    // ---------- Écriture ----------
+
+    public void record(long userId, String event) {
+        int eventType = eventType(event);
+        if (eventType < 0) {
+            untrackedEvents.increment();
+            return;
+        }
+        long now = clock.getAsLong();
+        Activity activity = users.get(userId);
+        if (activity == null) {
+            if (users.size() >= maxUsers) {
+                untrackedEvents.increment();
+                return;
+            }
+            activity = users.computeIfAbsent(userId, id -> new Activity(now));
+        }
+        activity.add(eventType, now);
+    }
+
+    private int eventType(String event) {
+        Integer known = eventTypes.get(event);
+        if (known != null) {
+            return known;
+        }
+        if (eventTypes.size() >= MAX_EVENT_TYPES) {
+            return -1;
+        }
+        // Le nom est publié avant l'index : un lecteur qui voit l'index voit aussi le nom
+        int index = eventTypes.computeIfAbsent(event, e -> {
+            int next = nextEventType.getAndIncrement();
+            if (next >= MAX_EVENT_TYPES) {
+                return -1;
+            }
+            eventNames.set(next, e);
+            return next;
+        });
+        if (index < 0) {
+            eventTypes.remove(event, -1);
+        }
+        return index;
+    }
+
+    // ---------- Lecture ----------
+
+    public Optional<UserProfileResponse> profile(Long userId) {
+        Activity activity = users.get(userId);
+        return activity == null ? Optional.empty() : Optional.of(toResponse(userId, activity));
+    }
+
+    public int trackedUsers() {
+        return users.size();
+    }
+
+    public long untrackedEvents() {
+        return untrackedEvents.sum();
+    }
+
+    // ---------- Purge ----------
+
+    @Scheduled(
+            initialDelayString = "${profiling.users.purge-interval:PT1M}",
+            fixedDelayString = "${profiling.users.purge-interval:PT1M}"
+    )
+    public void evictIdle() {
+        long limit = clock.getAsLong() - idleTimeoutMillis;
+        users.values().removeIf(activity -> activity.lastSeenMillis <= limit);
+    }
+
+    // Profil = événement le plus fréquent ; à égalité, le premier type d'événement apparu
+    private UserProfileResponse toResponse(Long userId, Activity activity) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        String profile = null;
+        long max = 0;
+        long total = 0;
+        for (int i = 0; i < MAX_EVENT_TYPES; i++) {
+            LongAdder counter = activity.counts.get(i);
+            if (counter == null) {
+                continue;
+            }
+            long count = counter.sum();
+            counts.put(eventNames.get(i), count);
+            total += count;
+            if (count > max) {
+                max = count;
+                profile = eventNames.get(i);
+            }
+        }
+        return new UserProfileResponse(userId, counts, profile, total, Instant.ofEpochMilli(activity.lastSeenMillis));
+    }
+}
@@ -0,0 +1,294 @@
+package com.obs.productmanagement.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Profils utilisateurs à partir des logs JSON des services (remplace analyze_logs.py).
+ * <p>
+ * Chaque fichier (logs/app.jsonl et les fichiers tournés app.AAAA-MM-JJ.jsonl) est projeté en
+ * mémoire et lu sans Reader par le parseur en flux de Jackson, qui ne s'arrête que sur
+ * "userId" et "event" et saute le reste. Les fichiers
+ * sont analysés en parallèle puis fusionnés dans l'ordre chronologique, ce qui donne la même
+ * sortie que le script sur la concaténation des fichiers.
+ * <pre>
+ *   mvn -Panalyze-logs compile exec:exec                               (dossier logs/)
+ *   mvn -Panalyze-logs compile exec:exec -Danalyze.args="logs/app.2025-12-22.jsonl"
+ * </pre>
+ */
+public final class LogAnalyzer {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    // Taille maximale d'une projection : un MappedByteBuffer est indexé par un int
+    private static final int REGION_SIZE = 1 << 30;
+
+    private LogAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args.length == 0 ? new String[]{"logs"} : args) {
+            Path path = Path.of(arg);
+            files.addAll(Files.isDirectory(path) ? logFiles(path) : List.of(path));
+        }
+
+        long start = System.nanoTime();
+        UserProfiles result = analyze(files);
+        result.profiles().forEach(profile -> System.out.println(profile.toLine()));
+        System.err.printf("%d files, %d lines (%d malformed) in %d ms%n", files.size(), result.lines(),
+                result.malformedLines(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Fichiers tournés d'abord (le nom porte la date), puis le fichier courant
+    public static List<Path> logFiles(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            List<Path> rotated = new ArrayList<>(entries
+                    .filter(p -> p.getFileName().toString().matches("app\\.\\d{4}-\\d{2}-\\d{2}\\.jsonl"))
+                    .sorted()
+                    .toList());
+            Path current = directory.resolve("app.jsonl");
+            if (Files.isRegularFile(current)) {
+                rotated.add(current);
+            }
+            return rotated;
+        }
+    }
+
+    public static UserProfiles analyze(List<Path> files) {
+        List<UserProfiles> perFile = files.parallelStream().map(LogAnalyzer::analyzeFile).toList();
+        UserProfiles merged = new UserProfiles();
+        perFile.forEach(merged::merge);
+        return merged;
+    }
+
+    static UserProfiles analyzeFile(Path file) {
+        FileParser parser = new FileParser();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(REGION_SIZE, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < size) {
+                    // On s'arrête au dernier saut de ligne : la ligne coupée est relue dans la projection suivante
+                    end = lastNewline(region, length) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line longer than " + REGION_SIZE + " bytes in " + file);
+                    }
+                }
+                parser.parse(region, end);
+                position += end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot analyze " + file, e);
+        }
+        return parser.profiles;
+    }
+
+    private static int lastNewline(ByteBuffer region, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (region.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipBlanks(ByteBuffer region, int from, int end) {
+        int i = from;
+        while (i < end && (region.get(i) == ' ' || region.get(i) == '\t' || region.get(i) == '\r' || region.get(i) == '\n')) {
+            i++;
+        }
+        return i;
+    }
+
+    // Début de la ligne qui suit from (ou end s'il n'y en a pas)
+    private static int nextLineStart(ByteBuffer region, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (region.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Entier décimal positif écrit sans zéro de tête ni signe, comme Long.toString : -1 sinon, la valeur
+     * affichée devant rester identique au texte du log.
+     */
+    static long parseCanonicalLong(String text) {
+        return parseCanonicalLong(text.toCharArray(), 0, text.length());
+    }
+
+    static long parseCanonicalLong(char[] chars, int offset, int length) {
+        if (length == 0 || length > 18 || (chars[offset] == '0' && length > 1)) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /*
+     * Lecteur d'un fichier. Un seul parseur Jackson lit la suite d'objets JSON de la projection
+     * (deux fois plus rapide qu'un parseur par ligne). Une ligne invalide fait échouer le parseur :
+     * elle est comptée, puis la lecture reprend avec un nouveau parseur à la ligne suivante.
+     */
+    private static final class FileParser {
+        private final UserProfiles profiles = new UserProfiles();
+        private String[] events = new String[8];
+        private int eventCount;
+
+        void parse(ByteBuffer region, int end) throws IOException {
+            int offset = 0;
+            while (offset < end) {
+                RegionInput input = new RegionInput(region, offset, end);
+                // Fin du dernier objet lu correctement, -1 tant qu'aucun ne l'a été
+                int lastObjectEnd = -1;
+                try (JsonParser json = JSON.createParser(input)) {
+                    JsonToken token;
+                    while ((token = json.nextToken()) != null) {
+                        if (token != JsonToken.START_OBJECT) {
+                            throw new JsonParseException(json, "Expected a JSON object per line");
+                        }
+                        readObject(json);
+                        profiles.countLine();
+                        lastObjectEnd = offset + (int) json.currentLocation().getByteOffset();
+                    }
+                    offset = end;
+                } catch (JsonProcessingException e) {
+                    profiles.countLine();
+                    profiles.countMalformedLine();
+                    // La ligne fautive commence au premier caractère non blanc après le dernier objet valide
+                    int badLine = skipBlanks(region, lastObjectEnd < 0 ? offset : lastObjectEnd, end);
+                    offset = nextLineStart(region, badLine, end);
+                }
+            }
+        }
+
+        private void readObject(JsonParser json) throws IOException {
+            long numericUser = -1;
+            String otherUser = null;
+            String event = null;
+
+            // Noms de champs canonisés par Jackson : comparaison par equals sur des chaînes internées
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.currentName();
+                JsonToken value = json.nextToken();
+                if ("userId".equals(field)) {
+                    numericUser = -1;
+                    otherUser = null;
+                    // Comme le "if uid" du script : chaîne vide et 0 sont ignorés
+                    if (value == JsonToken.VALUE_STRING) {
+                        numericUser = parseCanonicalLong(json.getTextCharacters(), json.getTextOffset(), json.getTextLength());
+                        if (numericUser < 0 && json.getTextLength() > 0) {
+                            otherUser = json.getText();
+                        }
+                    } else if (value == JsonToken.VALUE_NUMBER_INT) {
+                        long id = json.getLongValue();
+                        if (id > 0) {
+                            numericUser = id;
+                        } else if (id < 0) {
+                            otherUser = json.getText();
+                        }
+                    }
+                } else if ("event".equals(field)) {
+                    event = value == JsonToken.VALUE_STRING && json.getTextLength() > 0 ? event(json) : null;
+                } else {
+                    json.skipChildren();
+                }
+            }
+
+            if (event != null) {
+                if (numericUser >= 0) {
+                    profiles.record(numericUser, event);
+                } else if (otherUser != null) {
+                    profiles.record(otherUser, event);
+                }
+            }
+        }
+
+        // Quelques noms d'événements distincts : on rend toujours la même instance, sans allouer de String
+        private String event(JsonParser json) throws IOException {
+            char[] chars = json.getTextCharacters();
+            int offset = json.getTextOffset();
+            int length = json.getTextLength();
+            for (int i = 0; i < eventCount; i++) {
+                if (sameText(events[i], chars, offset, length)) {
+                    return events[i];
+                }
+            }
+            if (eventCount == events.length) {
+                events = Arrays.copyOf(events, eventCount * 2);
+            }
+            String created = new String(chars, offset, length);
+            events[eventCount++] = created;
+            return created;
+        }
+
+        private static boolean sameText(String known, char[] chars, int offset, int length) {
+            if (known.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (known.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Flux sur une partie de la projection, copiée par blocs dans le tampon de Jackson
+    private static final class RegionInput extends InputStream {
+        private final ByteBuffer region;
+        private final int end;
+        private int position;
+
+        RegionInput(ByteBuffer region, int start, int end) {
+            this.region = region;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            return position < end ? region.get(position++) & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= end) {
+                return -1;
+            }
+            int count = Math.min(length, end - position);
+            region.get(position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
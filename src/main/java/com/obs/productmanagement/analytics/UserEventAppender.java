@@ -0,0 +1,59 @@
+package com.obs.productmanagement.analytics;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.List;
+
+/*
+ * Relaie à LiveUserProfiles les événements des services qui portent un userId (MDC posé par
+ * LoggingMdcFilter) et un champ "event", pris dans le MDC ou dans les paires clé/valeur SLF4J
+ * (log.atInfo().addKeyValue("event", ...)) : les deux sources que LogstashEncoder écrit à la racine du JSON.
+ */
+class UserEventAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    static final String USER_ID = "userId";
+    static final String EVENT = "event";
+
+    private final LiveUserProfiles profiles;
+
+    UserEventAppender(LiveUserProfiles profiles) {
+        this.profiles = profiles;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String userId = event.getMDCPropertyMap().get(USER_ID);
+        if (userId == null || userId.isEmpty()) {
+            return;
+        }
+        String name = eventName(event);
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        profiles.record(id, name);
+    }
+
+    private static String eventName(ILoggingEvent event) {
+        String fromMdc = event.getMDCPropertyMap().get(EVENT);
+        if (fromMdc != null) {
+            return fromMdc;
+        }
+        List<KeyValuePair> pairs = event.getKeyValuePairs();
+        if (pairs != null) {
+            for (KeyValuePair pair : pairs) {
+                if (EVENT.equals(pair.key) && pair.value != null) {
+                    return pair.value.toString();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.obs.productmanagement.analytics;
+
+import java.util.*;
+
+/**
+ * Compteurs d'événements par utilisateur, dans l'ordre de première apparition (utilisateurs
+ * comme événements), pour reproduire la sortie de l'ancien analyze_logs.py. Les userId
+ * numériques, cas normal puisque le MDC contient un Long, sont indexés sans objet par clé.
+ * Une instance n'est pas thread-safe : une par fichier, fusionnées ensuite dans l'ordre des fichiers.
+ */
+public final class UserProfiles {
+
+    public record Profile(String userId, Map<String, Long> counts, String profile) {
+
+        // Même format que le script Python : dict repr, profil = événement le plus fréquent (premier vu en cas d'égalité)
+        public String toLine() {
+            StringJoiner joined = new StringJoiner(", ", "{", "}");
+            counts.forEach((event, count) -> joined.add("'" + event + "': " + count));
+            return "userId=" + userId + " counts=" + joined + " profile=" + profile;
+        }
+    }
+
+    private static final class Counters {
+        private final String userId;
+        private String[] events = new String[4];
+        private long[] counts = new long[4];
+        private int size;
+
+        Counters(String userId) {
+            this.userId = userId;
+        }
+
+        // Quelques types d'événements seulement : un parcours linéaire bat une table de hachage
+        void add(String event, long count) {
+            for (int i = 0; i < size; i++) {
+                if (events[i].equals(event)) {
+                    counts[i] += count;
+                    return;
+                }
+            }
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            events[size] = event;
+            counts[size++] = count;
+        }
+    }
+
+    private final LongIntHashMap numericIds = new LongIntHashMap(1024);
+    private final Map<String, Integer> otherIds = new HashMap<>();
+    private final List<Counters> users = new ArrayList<>();
+    private long lines;
+    private long malformedLines;
+
+    void record(long userId, String event) {
+        int index = numericIds.get(userId);
+        if (index == LongIntHashMap.MISSING) {
+            index = users.size();
+            users.add(new Counters(Long.toString(userId)));
+            numericIds.put(userId, index);
+        }
+        users.get(index).add(event, 1);
+    }
+
+    void record(String userId, String event) {
+        counters(userId).add(event, 1);
+    }
+
+    void countLine() {
+        lines++;
+    }
+
+    void countMalformedLine() {
+        malformedLines++;
+    }
+
+    // Ajoute other après le contenu courant : les utilisateurs nouveaux gardent leur ordre d'apparition
+    void merge(UserProfiles other) {
+        for (Counters theirs : other.users) {
+            Counters mine = counters(theirs.userId);
+            for (int i = 0; i < theirs.size; i++) {
+                mine.add(theirs.events[i], theirs.counts[i]);
+            }
+        }
+        lines += other.lines;
+        malformedLines += other.malformedLines;
+    }
+
+    public List<Profile> profiles() {
+        List<Profile> profiles = new ArrayList<>(users.size());
+        for (Counters user : users) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            int top = 0;
+            for (int i = 0; i < user.size; i++) {
+                counts.put(user.events[i], user.counts[i]);
+                if (user.counts[i] > user.counts[top]) {
+                    top = i;
+                }
+            }
+            profiles.add(new Profile(user.userId, counts, user.events[top]));
+        }
+        return profiles;
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public long malformedLines() {
+        return malformedLines;
+    }
+
+    private Counters counters(String userId) {
+        long numeric = LogAnalyzer.parseCanonicalLong(userId);
+        Integer index = numeric >= 0 ? Integer.valueOf(numericIds.get(numeric)) : otherIds.get(userId);
+        if (index == null || index == LongIntHashMap.MISSING) {
+            index = users.size();
+            users.add(new Counters(userId));
+            if (numeric >= 0) {
+                numericIds.put(numeric, index);
+            } else {
+                otherIds.put(userId, index);
+            }
+        }
+        return users.get(index);
+    }
+}
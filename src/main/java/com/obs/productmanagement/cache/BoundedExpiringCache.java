@@ -0,0 +1,110 @@
+package com.obs.productmanagement.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache en mémoire borné, où chaque entrée porte sa propre date d'expiration.
+ * Les entrées expirées sont retirées à la lecture, ou en bloc quand le cache est plein.
+ * Aucun verrou : lectures et écritures passent par ConcurrentHashMap.
+ */
+public class BoundedExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedExpiringCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    public BoundedExpiringCache(int maxSize, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // Cache plein : on purge d'abord les expirées, puis ~10 % des entrées restantes
+    // pour ne pas refaire un parcours complet à chaque insertion.
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAtMillis() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        int toEvict = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (toEvict > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+            toEvict--;
+        }
+    }
+}
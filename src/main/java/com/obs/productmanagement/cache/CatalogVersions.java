@@ -0,0 +1,90 @@
+package com.obs.productmanagement.cache;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de modification du catalogue, incrémentés par les services après chaque écriture
+ * (et après la mise à jour des index en mémoire, dont sont tirées les réponses en cache),
+ * qui servent d'ETag aux listes GET /api/products, /api/categories et
+ * /api/products/by-category/{id} : un client à jour reçoit 304 sans requête SQL ni sérialisation.
+ * <p>
+ * Le contrôleur lit la version AVANT de charger les données : une écriture concurrente donne au
+ * pire un ETag déjà dépassé (le client rechargera), jamais des données anciennes sous un ETag neuf.
+ * L'ETag porte aussi l'instant de démarrage (compteurs remis à zéro au redémarrage) et une époque
+ * incrémentée toutes les {@code catalog.etag.max-age}, qui borne la durée d'un 304 quand une autre
+ * instance modifie la base, comme le TTL de {@link CategoryCache}.
+ */
+@Component
+public class CatalogVersions {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    // Écritures dont la catégorie n'est pas connue (suppression, import) : toutes les listes par catégorie changent
+    private final AtomicLong allCategoryProducts = new AtomicLong();
+    private final ConcurrentHashMap<Long, AtomicLong> categoryProducts = new ConcurrentHashMap<>();
+
+    // ---------- Écritures ----------
+
+    /**
+     * Produit créé, modifié ou supprimé dans la catégorie donnée (null si inconnue).
+     * L'instantané des catégories embarque les produits : il change aussi.
+     */
+    public void productChanged(Long categoryId) {
+        if (categoryId == null) {
+            allCategoryProducts.incrementAndGet();
+        } else {
+            categoryProducts.computeIfAbsent(categoryId, id -> new AtomicLong()).incrementAndGet();
+        }
+        products.incrementAndGet();
+        categories.incrementAndGet();
+    }
+
+    public void categoryAdded() {
+        categories.incrementAndGet();
+    }
+
+    // Catégorie renommée ou supprimée : ProductResponse porte le nom de la catégorie
+    public void categoryChanged(Long categoryId) {
+        categoryProducts.computeIfAbsent(categoryId, id -> new AtomicLong()).incrementAndGet();
+        products.incrementAndGet();
+        categories.incrementAndGet();
+    }
+
+    @Scheduled(
+            initialDelayString = "${catalog.etag.max-age:PT10M}",
+            fixedDelayString = "${catalog.etag.max-age:PT10M}"
+    )
+    public void expire() {
+        epoch.incrementAndGet();
+    }
+
+    // ---------- ETags ----------
+
+    public String productsETag() {
+        return etag('p', products.get());
+    }
+
+    public String categoriesETag() {
+        return etag('c', categories.get());
+    }
+
+    public String categoryProductsETag(Long categoryId) {
+        AtomicLong version = categoryProducts.get(categoryId);
+        return etag("k" + allCategoryProducts.get() + '.' + (version == null ? 0 : version.get()));
+    }
+
+    // ETag faible : le même contenu peut partir en JSON brut ou compressé en gzip
+    private String etag(char kind, long version) {
+        return etag(String.valueOf(kind) + version);
+    }
+
+    private String etag(String version) {
+        return "W/\"" + instance + '.' + epoch.get() + '.' + version + '"';
+    }
+}
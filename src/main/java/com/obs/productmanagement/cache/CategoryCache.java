@@ -0,0 +1,107 @@
+package com.obs.productmanagement.cache;
+
+import com.obs.productmanagement.dto.CategoryResponse;
+import com.obs.productmanagement.model.Category;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache des catégories, qui changent rarement :
+ *  - les entités par id (copies détachées sans la collection products), pour le chemin d'écriture des produits ;
+ *  - l'instantané complet renvoyé par GET /api/categories.
+ * Les services invalident après chaque écriture ; le TTL borne la dérive entre instances.
+ */
+@Component
+public class CategoryCache {
+
+    private static final String ALL = "all";
+
+    private final BoundedExpiringCache<Long, Category> categories;
+    private final BoundedExpiringCache<String, List<CategoryResponse>> snapshot;
+    private final long ttlMillis;
+
+    // Incrémenté à chaque invalidation : un chargement commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+
+    public CategoryCache(
+            @Value("${cache.categories.max-size:1000}") int maxSize,
+            @Value("${cache.categories.ttl:PT10M}") Duration ttl
+    ) {
+        this.categories = new BoundedExpiringCache<>(maxSize);
+        this.snapshot = new BoundedExpiringCache<>(1);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public Optional<Category> findById(Long id, Function<Long, Optional<Category>> loader) {
+        Category cached = categories.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long before = generation.get();
+        Optional<Category> loaded = loader.apply(id).map(CategoryCache::detachedCopy);
+        if (loaded.isPresent() && generation.get() == before) {
+            categories.put(id, loaded.get(), expiry());
+        }
+        return loaded;
+    }
+
+    public List<CategoryResponse> getAll(Supplier<List<CategoryResponse>> loader) {
+        List<CategoryResponse> cached = snapshot.get(ALL);
+        if (cached != null) {
+            return cached;
+        }
+
+        long before = generation.get();
+        List<CategoryResponse> loaded = List.copyOf(loader.get());
+        if (generation.get() == before) {
+            snapshot.put(ALL, loaded, expiry());
+        }
+        return loaded;
+    }
+
+    // Catégorie modifiée ou supprimée
+    public void evict(Long id) {
+        generation.incrementAndGet();
+        categories.invalidate(id);
+        snapshot.invalidateAll();
+    }
+
+    // L'instantané embarque les produits de chaque catégorie : toute écriture produit l'invalide
+    public void evictSnapshot() {
+        generation.incrementAndGet();
+        snapshot.invalidateAll();
+    }
+
+    public int size() {
+        return categories.size();
+    }
+
+    public long hitCount() {
+        return categories.hitCount() + snapshot.hitCount();
+    }
+
+    public long missCount() {
+        return categories.missCount() + snapshot.missCount();
+    }
+
+    public long evictionCount() {
+        return categories.evictionCount() + snapshot.evictionCount();
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    // Copie partagée entre threads : pas de proxy ni de collection LAZY rattachée à une session
+    private static Category detachedCopy(Category category) {
+        return new Category(category.getId(), category.getName(), category.getDescription(), null);
+    }
+}
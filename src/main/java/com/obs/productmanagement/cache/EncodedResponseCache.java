@@ -0,0 +1,128 @@
+package com.obs.productmanagement.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Réponses JSON déjà sérialisées des listes les plus lues, avec leurs variantes compressées
+ * (gzip et deflate au-delà de {@code compression-min-size}) : la requête suivante renvoie les
+ * octets tels quels, sans appel au service, ni mapping, ni Jackson, ni compression.
+ * <p>
+ * Chaque entrée garde la version du catalogue ({@link CatalogVersions}) sous laquelle elle a été
+ * construite : les écritures des services changent cette version, et une entrée d'une autre
+ * version est simplement reconstruite. Le nombre d'entrées, la taille d'une entrée et leur durée
+ * de vie sont bornés.
+ */
+@Component
+public class EncodedResponseCache {
+
+    // Pas de brotli : aucun encodeur en Java pur, deflate est l'alternative à gzip
+    public enum ContentCoding {
+        GZIP, DEFLATE;
+
+        public String token() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record EncodedResponse(String version, byte[] json, byte[] gzip, byte[] deflate) {
+
+        // null si cette variante n'a pas été produite (réponse trop petite ou codage désactivé)
+        public byte[] body(ContentCoding coding) {
+            return coding == ContentCoding.GZIP ? gzip : deflate;
+        }
+
+        public boolean isCompressed() {
+            return gzip != null || deflate != null;
+        }
+    }
+
+    private final BoundedExpiringCache<String, EncodedResponse> entries;
+    private final ObjectMapper objectMapper;
+    private final PayloadCompressor compressor;
+    private final Set<ContentCoding> codings = EnumSet.noneOf(ContentCoding.class);
+    private final long ttlMillis;
+    private final int maxEntrySize;
+    private final int compressionMinSize;
+
+    @Autowired
+    public EncodedResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${cache.responses.max-size:256}") int maxSize,
+            @Value("${cache.responses.ttl:PT10M}") Duration ttl,
+            @Value("${cache.responses.max-entry-size:4194304}") int maxEntrySize,
+            @Value("${cache.responses.compression-min-size:1024}") int compressionMinSize,
+            @Value("${cache.responses.compression-level:6}") int compressionLevel,
+            @Value("${cache.responses.encodings:gzip,deflate}") String[] encodings
+    ) {
+        this.entries = new BoundedExpiringCache<>(maxSize);
+        this.objectMapper = objectMapper;
+        this.compressor = new PayloadCompressor(compressionLevel, Runtime.getRuntime().availableProcessors());
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntrySize = maxEntrySize;
+        this.compressionMinSize = compressionMinSize;
+        for (String encoding : encodings) {
+            if (!encoding.isBlank()) {
+                codings.add(ContentCoding.valueOf(encoding.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    /**
+     * Réponse encodée de key pour la version courante du catalogue. version doit être lue avant
+     * d'appeler loader : une écriture concurrente rend l'entrée périmée, jamais fausse.
+     */
+    public EncodedResponse get(String key, String version, Supplier<?> loader) {
+        EncodedResponse cached = entries.get(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+
+        EncodedResponse encoded = encode(version, loader.get());
+        if (encoded.json().length <= maxEntrySize) {
+            entries.put(key, encoded, System.currentTimeMillis() + ttlMillis);
+        }
+        return encoded;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return entries.hitCount();
+    }
+
+    public long missCount() {
+        return entries.missCount();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+
+    private EncodedResponse encode(String version, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cached response", e);
+        }
+        // Au-delà de max-entry-size, rien n'est gardé : la compression de Tomcat prend le relais
+        if (json.length < compressionMinSize || json.length > maxEntrySize) {
+            return new EncodedResponse(version, json, null, null);
+        }
+        return new EncodedResponse(version, json,
+                codings.contains(ContentCoding.GZIP) ? compressor.gzip(json) : null,
+                codings.contains(ContentCoding.DEFLATE) ? compressor.deflate(json) : null);
+    }
+}
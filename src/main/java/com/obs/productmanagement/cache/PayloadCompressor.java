@@ -0,0 +1,114 @@
+package com.obs.productmanagement.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * Compression gzip / deflate des réponses mises en cache. Un Deflater coûte ~300 Ko de mémoire
+ * native à créer : quelques-uns sont gardés dans une file sans verrou, avec leur tampon de sortie,
+ * et réutilisés après reset() au lieu d'un GZIPOutputStream neuf par réponse.
+ * Format "deflate" de HTTP = flux zlib (RFC 1950) ; gzip = flux brut + en-tête et CRC32 (RFC 1952).
+ */
+final class PayloadCompressor {
+
+    // En-tête gzip minimal : méthode deflate, sans nom ni date, OS inconnu
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER = 8;
+    // Un tampon plus grand n'est pas gardé entre deux compressions
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final class Slot {
+        private final Deflater deflater;
+        private byte[] buffer = new byte[8 * 1024];
+
+        Slot(int level, boolean raw) {
+            this.deflater = new Deflater(level, raw);
+        }
+    }
+
+    private final int level;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<Slot> rawSlots = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Slot> zlibSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    PayloadCompressor(int level, int maxPooled) {
+        this.level = level;
+        this.maxPooled = maxPooled;
+    }
+
+    byte[] gzip(byte[] input) {
+        Slot slot = acquire(rawSlots, true);
+        try {
+            System.arraycopy(GZIP_HEADER, 0, slot.buffer, 0, GZIP_HEADER.length);
+            int length = deflate(slot, input, GZIP_HEADER.length, GZIP_TRAILER);
+
+            CRC32 crc = new CRC32();
+            crc.update(input);
+            writeIntLE(slot.buffer, length, (int) crc.getValue());
+            writeIntLE(slot.buffer, length + 4, input.length);
+            return Arrays.copyOf(slot.buffer, length + GZIP_TRAILER);
+        } finally {
+            release(rawSlots, slot);
+        }
+    }
+
+    byte[] deflate(byte[] input) {
+        Slot slot = acquire(zlibSlots, false);
+        try {
+            return Arrays.copyOf(slot.buffer, deflate(slot, input, 0, 0));
+        } finally {
+            release(zlibSlots, slot);
+        }
+    }
+
+    // Compresse input dans slot.buffer à partir de offset, en gardant reserve octets libres à la fin
+    private static int deflate(Slot slot, byte[] input, int offset, int reserve) {
+        Deflater deflater = slot.deflater;
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        int length = offset;
+        while (!deflater.finished()) {
+            if (length == slot.buffer.length) {
+                slot.buffer = Arrays.copyOf(slot.buffer, slot.buffer.length * 2);
+            }
+            length += deflater.deflate(slot.buffer, length, slot.buffer.length - length);
+        }
+        if (slot.buffer.length - length < reserve) {
+            slot.buffer = Arrays.copyOf(slot.buffer, length + reserve);
+        }
+        return length;
+    }
+
+    private Slot acquire(ConcurrentLinkedQueue<Slot> slots, boolean raw) {
+        Slot slot = slots.poll();
+        if (slot != null) {
+            pooled.decrementAndGet();
+            return slot;
+        }
+        return new Slot(level, raw);
+    }
+
+    private void release(ConcurrentLinkedQueue<Slot> slots, Slot slot) {
+        if (slot.buffer.length > MAX_RETAINED_BUFFER) {
+            slot.buffer = new byte[8 * 1024];
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            slots.offer(slot);
+        } else {
+            pooled.decrementAndGet();
+            slot.deflater.end();
+        }
+    }
+
+    private static void writeIntLE(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+        buffer[offset + 2] = (byte) (value >>> 16);
+        buffer[offset + 3] = (byte) (value >>> 24);
+    }
+}
@@ -7,6 +7,7 @@ import com.obs.productmanagement.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 
@@ -17,7 +18,9 @@ public class DataInitializer implements CommandLineRunner {
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
 
+    // Une seule transaction : les inserts partent en batch au commit
     @Override
+    @Transactional
     public void run(String... args) {
         if (categoryRepository.count() > 0) {
             return;
@@ -0,0 +1,31 @@
+package com.obs.productmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Le profil virtual-threads active spring.threads.virtual.enabled, que Spring Boot ignore
+ * silencieusement avant Java 21 : Tomcat garde alors son pool de threads plateforme,
+ * mais avec le dimensionnement JDBC prévu pour les threads virtuels. On le signale au démarrage.
+ */
+@Component
+@Profile("virtual-threads")
+public class VirtualThreadsCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("Profile 'virtual-threads' is active but the JVM is Java {}: virtual threads need Java 21+, "
+                    + "requests are still served by the Tomcat platform-thread pool", feature);
+        } else {
+            log.info("Requests, @Async and @Scheduled tasks run on virtual threads");
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.obs.productmanagement.controller;
 
 import com.obs.productmanagement.dto.AuthResponse;
 import com.obs.productmanagement.dto.LoginRequest;
+import com.obs.productmanagement.security.LoginRateLimiter;
 import com.obs.productmanagement.service.IAuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +16,12 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final IAuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest http) {
+        // Refusé avant toute requête SQL ou vérification bcrypt
+        loginRateLimiter.acquire(request.login(), http.getRemoteAddr());
         AuthResponse authResponse = authService.login(request);
         return ResponseEntity.ok(authResponse);
     }
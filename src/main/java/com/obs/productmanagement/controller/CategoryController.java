@@ -1,5 +1,7 @@
 package com.obs.productmanagement.controller;
 
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.EncodedResponseCache;
 import com.obs.productmanagement.dto.CategoryRequest;
 import com.obs.productmanagement.dto.CategoryResponse;
 import com.obs.productmanagement.service.ICategoryService;
@@ -8,9 +10,9 @@ import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -18,12 +20,19 @@ import java.util.List;
 public class CategoryController {
 
     private final ICategoryService categoryService;
+    private final CatalogVersions catalogVersions;
+    private final EncodedResponseCache encodedResponseCache;
 
-    // GET /api/categories
+    // GET /api/categories (If-None-Match : 304 ; sinon octets déjà sérialisés tant que rien ne change)
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getAllCategories(WebRequest webRequest) {
+        String etag = catalogVersions.categoriesETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EncodedResponseCache.EncodedResponse encoded = encodedResponseCache.get(
+                "categories", etag, categoryService::getAllCategories);
+        return EncodedResponses.ok(encoded, etag, webRequest);
     }
 
     // GET /api/categories/{id}
@@ -0,0 +1,74 @@
+package com.obs.productmanagement.controller;
+
+import com.obs.productmanagement.cache.EncodedResponseCache.ContentCoding;
+import com.obs.productmanagement.cache.EncodedResponseCache.EncodedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Locale;
+
+// Réponse 200 à partir des octets du cache : variante compressée préférée par le client, JSON brut sinon
+final class EncodedResponses {
+
+    private EncodedResponses() {
+    }
+
+    static ResponseEntity<byte[]> ok(EncodedResponse encoded, String etag, WebRequest webRequest) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag);
+        if (!encoded.isCompressed()) {
+            return builder.body(encoded.json());
+        }
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentCoding coding = negotiate(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), encoded);
+        if (coding == null) {
+            return builder.body(encoded.json());
+        }
+        return builder.header(HttpHeaders.CONTENT_ENCODING, coding.token()).body(encoded.body(coding));
+    }
+
+    /**
+     * Codage de plus haute qualité (q) parmi les variantes disponibles, gzip à égalité ;
+     * null pour le JSON brut (pas d'Accept-Encoding, ou q=0 partout).
+     */
+    static ContentCoding negotiate(String acceptEncoding, EncodedResponse encoded) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            double q = quality(parts);
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case "gzip", "x-gzip" -> gzip = q;
+                case "deflate" -> deflate = q;
+                case "*" -> any = q;
+                default -> { }
+            }
+        }
+        gzip = encoded.gzip() == null ? 0 : (gzip < 0 ? any : gzip);
+        deflate = encoded.deflate() == null ? 0 : (deflate < 0 ? any : deflate);
+        if (gzip <= 0 && deflate <= 0) {
+            return null;
+        }
+        return gzip >= deflate ? ContentCoding.GZIP : ContentCoding.DEFLATE;
+    }
+
+    // Paramètre q (1 par défaut) ; une valeur illisible vaut refus
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
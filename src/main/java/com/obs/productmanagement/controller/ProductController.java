@@ -1,17 +1,42 @@
 package com.obs.productmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.EncodedResponseCache;
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductImportResult;
+import com.obs.productmanagement.dto.ProductPageResponse;
 import com.obs.productmanagement.dto.ProductRequest;
 import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.service.IProductImportService;
 import com.obs.productmanagement.service.IProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -20,15 +45,106 @@ import java.util.List;
 @Validated
 public class ProductController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+
     private final IProductService productService;
+    private final IProductImportService productImportService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final EncodedResponseCache encodedResponseCache;
+
+    // GET /api/products (If-None-Match : 304 tant que le catalogue n'a pas changé)
+    // Tableau JSON écrit au fil du curseur, jamais matérialisé ; la compression est celle de Tomcat
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getAllProducts(WebRequest webRequest, HttpServletResponse response) {
+        String etag = catalogVersions.productsETag();
+        if (webRequest.checkNotModified(etag)) {
+            // 304 déjà écrit par checkNotModified
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try {
+            writeAllProducts(objectMapper.writerFor(ProductResponse.class)
+                    .writeValuesAsArray(response.getOutputStream()));
+        } catch (IOException e) {
+            log.warn("Product list aborted: {}", e.getMessage());
+        }
+    }
 
-    // GET /api/products
-    @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
+    // GET /api/products/page?cursor=...&size=50&sort=id|price
+    // En tri par prix, les produits sans prix suivent tous les autres, par id
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getProductsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "Size must be >= 1")
+            @Max(value = 500, message = "Size must be <= 500") int size,
+            @RequestParam(required = false) String sort
+    ) {
+        ProductPageResponse page = productService.getProductsPage(cursor, size, sort);
+        return ResponseEntity.ok(page);
+    }
+
+    // GET /api/products/search?q=...&limit=20 : plein texte sur nom et description, par pertinence
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @RequestParam @NotBlank(message = "Query must not be blank")
+            @Size(max = 200, message = "Query must be <= 200 characters") String q,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limit must be >= 1")
+            @Max(value = 100, message = "Limit must be <= 100") int limit
+    ) {
+        List<ProductResponse> products = productService.searchProducts(q, limit);
         return ResponseEntity.ok(products);
     }
 
+    // GET /api/products/filter?minPrice=&maxPrice=&expiresFrom=2026-01-01&expiresBefore=&categoryId=1&categoryId=2&limit=50
+    // Critères combinés (ET), catégories en OU ; dates en jours UTC, expiresBefore exclu
+    @GetMapping("/filter")
+    public ResponseEntity<ProductFilterResponse> filterProducts(
+            @RequestParam(required = false) @PositiveOrZero(message = "minPrice must be >= 0") Double minPrice,
+            @RequestParam(required = false) @PositiveOrZero(message = "maxPrice must be >= 0") Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresBefore,
+            @RequestParam(name = "categoryId", required = false) List<@Positive(message = "Category id must be > 0") Long> categoryIds,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "Limit must be >= 1")
+            @Max(value = 500, message = "Limit must be <= 500") int limit
+    ) {
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, startOfDay(expiresFrom), startOfDay(expiresBefore), categoryIds);
+        return ResponseEntity.ok(productService.filterProducts(filter, limit));
+    }
+
+    // GET /api/products/stream : une ligne JSON par produit (NDJSON), écrite au fil du curseur
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public void streamProducts(HttpServletResponse response) {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        try {
+            writeAllProducts(objectMapper.writerFor(ProductResponse.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(response.getOutputStream()));
+        } catch (IOException e) {
+            log.warn("Product stream aborted: {}", e.getMessage());
+        }
+    }
+
+    // Écrit tout le catalogue dans le writer puis le ferme (fin du tableau JSON le cas échéant)
+    private void writeAllProducts(SequenceWriter sequenceWriter) {
+        try (SequenceWriter writer = sequenceWriter) {
+            productService.streamAllProducts(product -> {
+                try {
+                    writer.write(product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // Client parti en cours de flux : la réponse est engagée, on arrête le curseur ici
+            // au lieu de passer par le @ControllerAdvice, qui ne peut plus rien écrire
+            log.warn("Product stream aborted: {}", e.getMessage());
+        }
+    }
+
     // GET /api/products/{id}
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable @Min(value = 1, message = "Id must be >= 1") Long id) {
@@ -44,6 +160,20 @@ public class ProductController {
         return ResponseEntity.created(location).body(created);
     }
 
+    // POST /api/products/bulk : tableau JSON lu en flux, rapport des lignes rejetées
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportResult> importProductsJson(HttpServletRequest request) throws IOException {
+        ProductImportResult result = productImportService.importJson(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
+    // POST /api/products/bulk (text/csv) : en-tête name,description,price,expiryDate,categoryId
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<ProductImportResult> importProductsCsv(HttpServletRequest request) throws IOException {
+        ProductImportResult result = productImportService.importCsv(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     // PUT /api/products/{id}
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
@@ -61,29 +191,56 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
-    // GET /api/products/most-expensive
+    // GET /api/products/most-expensive : produits au prix max, ou les "limit" plus chers
     @GetMapping("/most-expensive")
-    public ResponseEntity<List<ProductResponse>> getMostExpensiveProducts() {
-        List<ProductResponse> products = productService.getMostExpensiveProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getMostExpensiveProducts(
+            @RequestParam(required = false) @Min(value = 1, message = "Limit must be >= 1")
+            @Max(value = 500, message = "Limit must be <= 500") Integer limit,
+            WebRequest webRequest
+    ) {
+        String etag = catalogVersions.productsETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        // JSON déjà sérialisé tant que le catalogue ne change pas
+        EncodedResponseCache.EncodedResponse encoded = encodedResponseCache.get(
+                "products/most-expensive?limit=" + limit, etag,
+                () -> (limit == null)
+                        ? productService.getMostExpensiveProducts()
+                        : productService.getTopProductsByPrice(limit));
+        return EncodedResponses.ok(encoded, etag, webRequest);
     }
 
     // GET /api/products/by-category/{categoryId}
     @GetMapping("/by-category/{categoryId}")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(
-            @PathVariable @Positive(message = "Category id must be > 0") Long categoryId
+    public ResponseEntity<byte[]> getProductsByCategory(
+            @PathVariable @Positive(message = "Category id must be > 0") Long categoryId,
+            WebRequest webRequest
     ) {
-        List<ProductResponse> products = productService.getProductsByCategory(categoryId);
-        return ResponseEntity.ok(products);
+        String etag = catalogVersions.categoryProductsETag(categoryId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EncodedResponseCache.EncodedResponse encoded = encodedResponseCache.get(
+                "products/by-category/" + categoryId, etag,
+                () -> productService.getProductsByCategory(categoryId));
+        return EncodedResponses.ok(encoded, etag, webRequest);
     }
 
-    // GET /api/products/by-category/{categoryId}/most-expensive
+    // GET /api/products/by-category/{categoryId}/most-expensive?limit=k
     @GetMapping("/by-category/{categoryId}/most-expensive")
     public ResponseEntity<List<ProductResponse>> getMostExpensiveProductsByCategory(
-            @PathVariable @Positive(message = "Category id must be > 0") Long categoryId
+            @PathVariable @Positive(message = "Category id must be > 0") Long categoryId,
+            @RequestParam(required = false) @Min(value = 1, message = "Limit must be >= 1")
+            @Max(value = 500, message = "Limit must be <= 500") Integer limit
     ) {
-        List<ProductResponse> products = productService.getMostExpensiveProductsByCategory(categoryId);
+        List<ProductResponse> products = (limit == null)
+                ? productService.getMostExpensiveProductsByCategory(categoryId)
+                : productService.getTopProductsByPriceInCategory(categoryId, limit);
         return ResponseEntity.ok(products);
     }
-}
 
+    private static Date startOfDay(LocalDate day) {
+        return day == null ? null : Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
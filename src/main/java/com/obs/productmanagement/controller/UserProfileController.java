@@ -0,0 +1,28 @@
+package com.obs.productmanagement.controller;
+
+import com.obs.productmanagement.analytics.LiveUserProfiles;
+import com.obs.productmanagement.dto.UserProfileResponse;
+import com.obs.productmanagement.exception.UserProfileAccessDeniedException;
+import com.obs.productmanagement.exception.UserProfileNotFoundException;
+import com.obs.productmanagement.security.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Profil d'usage calculé en direct à partir des logs des services : chacun ne lit que le sien (JWT requis)
+@RestController
+@RequestMapping("/api/profiles")
+@RequiredArgsConstructor
+public class UserProfileController {
+
+    private final LiveUserProfiles liveUserProfiles;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<UserProfileResponse> getProfile(@PathVariable Long userId) {
+        if (!userId.equals(SecurityUtils.getCurrentUserId())) {
+            throw new UserProfileAccessDeniedException(userId);
+        }
+        return ResponseEntity.ok(liveUserProfiles.profile(userId)
+                .orElseThrow(() -> new UserProfileNotFoundException(userId)));
+    }
+}
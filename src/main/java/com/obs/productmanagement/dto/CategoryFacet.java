@@ -0,0 +1,7 @@
+package com.obs.productmanagement.dto;
+
+public record CategoryFacet(
+        Long categoryId,
+        String categoryName,
+        Long count
+) {}
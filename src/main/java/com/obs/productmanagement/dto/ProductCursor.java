@@ -0,0 +1,55 @@
+package com.obs.productmanagement.dto;
+
+import com.obs.productmanagement.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans un parcours keyset du catalogue.
+ * Le client ne voit qu'un jeton opaque (Base64 URL) : "id:42" ou "price:19.99:42".
+ * En tri par prix, "price:null:42" désigne le groupe final des produits sans prix.
+ */
+public record ProductCursor(ProductSort sort, Double lastPrice, Long lastId) {
+
+    public enum ProductSort {
+        ID, PRICE;
+
+        public static ProductSort from(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException("Unknown sort '" + value + "' (expected id or price)");
+            }
+        }
+    }
+
+    public String encode() {
+        String raw = (sort == ProductSort.PRICE)
+                ? "price:" + lastPrice + ":" + lastId
+                : "id:" + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+
+            if (parts.length == 2 && parts[0].equals("id")) {
+                return new ProductCursor(ProductSort.ID, null, Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && parts[0].equals("price")) {
+                Double price = parts[1].equals("null") ? null : Double.parseDouble(parts[1]);
+                return new ProductCursor(ProductSort.PRICE, price, Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 ou nombre invalide : on tombe sur l'erreur générique ci-dessous
+        }
+        throw new InvalidCursorException("Invalid or malformed cursor");
+    }
+}
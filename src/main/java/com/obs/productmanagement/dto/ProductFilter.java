@@ -0,0 +1,13 @@
+package com.obs.productmanagement.dto;
+
+import java.util.Date;
+import java.util.List;
+
+// Critères de GET /api/products/filter, tous facultatifs : null (ou liste vide) = pas de contrainte
+public record ProductFilter(
+        Double minPrice,
+        Double maxPrice,
+        Date expiresFrom,      // inclus
+        Date expiresBefore,    // exclu
+        List<Long> categoryIds
+) {}
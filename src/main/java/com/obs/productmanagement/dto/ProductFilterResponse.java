@@ -0,0 +1,9 @@
+package com.obs.productmanagement.dto;
+
+import java.util.List;
+
+public record ProductFilterResponse(
+        List<ProductResponse> items,     // les "limit" moins chers
+        long total,                      // produits correspondant à tous les critères
+        List<CategoryFacet> categories   // comptes par catégorie, hors critère de catégorie
+) {}
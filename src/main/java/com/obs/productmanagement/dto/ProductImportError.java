@@ -0,0 +1,8 @@
+package com.obs.productmanagement.dto;
+
+// row : numéro de l'élément dans le tableau JSON ou de la ligne de données CSV (à partir de 1)
+public record ProductImportError(
+        int row,
+        String name,
+        String message
+) {}
@@ -0,0 +1,11 @@
+package com.obs.productmanagement.dto;
+
+import java.util.List;
+
+// errors est tronqué au-delà de import.products.max-reported-errors ; rejected reste exact
+public record ProductImportResult(
+        int received,
+        int imported,
+        int rejected,
+        List<ProductImportError> errors
+) {}
@@ -0,0 +1,8 @@
+package com.obs.productmanagement.dto;
+
+import java.util.List;
+
+public record ProductPageResponse(
+        List<ProductResponse> items,
+        String nextCursor    // null quand il n'y a plus de page
+) {}
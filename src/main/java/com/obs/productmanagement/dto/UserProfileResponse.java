@@ -0,0 +1,12 @@
+package com.obs.productmanagement.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record UserProfileResponse(
+        Long userId,
+        Map<String, Long> counts,   // événement -> nombre d'occurrences
+        String profile,             // événement le plus fréquent
+        long total,
+        Instant lastSeen
+) {}
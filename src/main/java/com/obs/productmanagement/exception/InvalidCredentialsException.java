@@ -0,0 +1,8 @@
+package com.obs.productmanagement.exception;
+
+// Même message que l'identifiant soit inconnu ou le mot de passe faux (ni l'un ni l'autre n'y figure)
+public class InvalidCredentialsException extends RuntimeException {
+    public InvalidCredentialsException() {
+        super("Invalid login or password");
+    }
+}
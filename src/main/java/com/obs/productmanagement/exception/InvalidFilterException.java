@@ -0,0 +1,7 @@
+package com.obs.productmanagement.exception;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.obs.productmanagement.exception;
+
+// Tentative de connexion refusée sans vérifier le mot de passe : trop de tentatives ou pool de hachage saturé
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String reason, long retryAfterSeconds) {
+        super("Too many login attempts (" + reason + "), retry in " + retryAfterSeconds + " s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.obs.productmanagement.exception;
+
+// Inscription refusée sans hacher le mot de passe : trop d'inscriptions en cours de hachage
+public class SignupThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SignupThrottledException(long retryAfterSeconds) {
+        super("Too many sign-ups in progress, retry in " + retryAfterSeconds + " s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
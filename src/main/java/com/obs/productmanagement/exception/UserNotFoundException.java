@@ -5,10 +5,6 @@ public class UserNotFoundException extends RuntimeException {
         super("User with id " + id + " not found");
     }
 
-    public UserNotFoundException(String username, String password) {
-        super("User with name " + username + " or password " + password + " not found");
-    }
-
     public UserNotFoundException(String username) {
         super("User with name " + username + " not found");
     }
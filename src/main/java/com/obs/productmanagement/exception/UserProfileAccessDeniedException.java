@@ -0,0 +1,7 @@
+package com.obs.productmanagement.exception;
+
+public class UserProfileAccessDeniedException extends RuntimeException {
+    public UserProfileAccessDeniedException(Long userId) {
+        super("Not allowed to read the profile of user " + userId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.obs.productmanagement.exception;
+
+public class UserProfileNotFoundException extends RuntimeException {
+    public UserProfileNotFoundException(Long userId) {
+        super("No recent activity recorded for user " + userId);
+    }
+}
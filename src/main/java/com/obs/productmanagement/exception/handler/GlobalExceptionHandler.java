@@ -2,7 +2,9 @@ package com.obs.productmanagement.exception.handler;
 
 import com.obs.productmanagement.dto.ErrorResponse;
 import com.obs.productmanagement.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -25,6 +27,26 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(UserProfileNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleUserProfileNotFound(UserProfileNotFoundException e) {
+        return new ErrorResponse(
+                e.getMessage(),
+                HttpStatus.NOT_FOUND.value(),
+                "USER_PROFILE_NOT_FOUND"
+        );
+    }
+
+    @ExceptionHandler(UserProfileAccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ErrorResponse handleUserProfileAccessDenied(UserProfileAccessDeniedException e) {
+        return new ErrorResponse(
+                e.getMessage(),
+                HttpStatus.FORBIDDEN.value(),
+                "USER_PROFILE_FORBIDDEN"
+        );
+    }
+
     @ExceptionHandler(UserAlreadyExistsException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleUserAlreadyExistsException(UserAlreadyExistsException e) {
@@ -35,6 +57,38 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidCredentialsException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ErrorResponse handleInvalidCredentials(InvalidCredentialsException e) {
+        return new ErrorResponse(
+                e.getMessage(),
+                HttpStatus.UNAUTHORIZED.value(),
+                "INVALID_CREDENTIALS"
+        );
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottled(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(
+                        e.getMessage(),
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "LOGIN_THROTTLED"
+                ));
+    }
+
+    @ExceptionHandler(SignupThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleSignupThrottled(SignupThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(
+                        e.getMessage(),
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "SIGNUP_THROTTLED"
+                ));
+    }
+
     @ExceptionHandler(ProductNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleProductNotFound(ProductNotFoundException e) {
@@ -75,6 +129,26 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursor(InvalidCursorException e) {
+        return new ErrorResponse(
+                e.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_CURSOR"
+        );
+    }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidFilter(InvalidFilterException e) {
+        return new ErrorResponse(
+                e.getMessage(),
+                HttpStatus.BAD_REQUEST.value(),
+                "INVALID_FILTER"
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleGenericException(Exception e) {
@@ -0,0 +1,9 @@
+package com.obs.productmanagement.index;
+
+// Ligne de chargement de ProductSearchIndex : seulement ce qui est découpé en termes, plus l'id de la catégorie
+public record IndexedProduct(
+        Long id,
+        String name,
+        String description,
+        Long categoryId
+) {}
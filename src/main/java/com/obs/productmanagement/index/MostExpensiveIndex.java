@@ -0,0 +1,430 @@
+package com.obs.productmanagement.index;
+
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.repository.CategoryRepository;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Produits les plus chers, globalement et par catégorie, tenus à jour par
+ * ProductServiceImpl / CategoryServiceImpl : les endpoints "most-expensive" lisent la tête
+ * de classements triés au lieu de lancer une sous-requête MAX(price) sur toute la table.
+ * <p>
+ * Chaque classement ne garde que ses {@code index.most-expensive.capacity} premiers produits,
+ * chargés par des requêtes top-K sur les index de prix : la mémoire dépend du nombre de catégories,
+ * pas de la taille du catalogue, et la table n'est jamais parcourue en entier. Un classement
+ * tronqué ne connaît pas les produits qui suivent son dernier : une lecture qui irait au-delà
+ * (limit plus grand que ce qu'il reste, ex aequo au prix max qui remplissent tout le classement)
+ * renvoie {@link Optional#empty()} et l'appelant retombe sur la requête SQL. Quand des suppressions
+ * le font passer sous la moitié de sa capacité, il est rechargé depuis la base.
+ * <p>
+ * Reconstruit depuis la base au démarrage (DataInitializer écrit sans passer par les services)
+ * puis périodiquement, ce qui borne l'écart si une autre instance modifie le catalogue.
+ * Tant que la première reconstruction n'est pas terminée, les lectures renvoient
+ * {@link Optional#empty()}.
+ */
+@Component
+public class MostExpensiveIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MostExpensiveIndex.class);
+
+    // Même ordre que les requêtes de repli : prix décroissant, puis id croissant
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing((Entry e) -> e.response().price(), Comparator.reverseOrder())
+            .thenComparing(e -> e.response().id());
+
+    private record Entry(Long categoryId, ProductResponse response) {
+        Long id() {
+            return response.id();
+        }
+    }
+
+    // Les premiers produits à prix d'un périmètre (tout le catalogue ou une catégorie)
+    private static final class Ranking {
+        private final NavigableSet<Entry> entries = new TreeSet<>(ORDER);
+        private final Map<Long, Entry> byId = new HashMap<>();
+        // Vrai tant que le classement contient tous les produits à prix du périmètre
+        private boolean complete;
+
+        Ranking(List<PricedProduct> rows, int capacity) {
+            rows.forEach(row -> add(new Entry(row.categoryId(), row.toResponse())));
+            complete = rows.size() < capacity;
+        }
+
+        /*
+         * Remplace le produit (entry null : le retire) et renvoie le produit évincé s'il y en a un.
+         * Un classement tronqué refuse un produit classé après son dernier élément : d'autres
+         * produits, inconnus, peuvent le précéder.
+         */
+        Entry update(Long productId, Entry entry, int capacity) {
+            Entry boundary = entries.isEmpty() ? null : entries.last();
+            Entry previous = byId.remove(productId);
+            if (previous != null) {
+                entries.remove(previous);
+            }
+            if (entry == null || (!complete && (boundary == null || ORDER.compare(entry, boundary) > 0))) {
+                return null;
+            }
+            add(entry);
+            if (entries.size() <= capacity) {
+                return null;
+            }
+            Entry evicted = entries.pollLast();
+            byId.remove(evicted.id());
+            complete = false;
+            return evicted;
+        }
+
+        // Même prix, même id : la position ne change pas
+        void renameCategory(Long categoryId, String name) {
+            for (Entry entry : List.copyOf(entries)) {
+                if (entry.categoryId().equals(categoryId)) {
+                    ProductResponse p = entry.response();
+                    entries.remove(entry);
+                    add(new Entry(categoryId, new ProductResponse(p.id(), p.name(), p.description(), p.price(), p.expiryDate(), name)));
+                }
+            }
+        }
+
+        void removeCategory(Long categoryId) {
+            for (Entry entry : List.copyOf(entries)) {
+                if (entry.categoryId().equals(categoryId)) {
+                    update(entry.id(), null, 0);
+                }
+            }
+        }
+
+        boolean needsRefill(int capacity) {
+            return !complete && entries.size() < capacity / 2;
+        }
+
+        private void add(Entry entry) {
+            entries.add(entry);
+            byId.put(entry.id(), entry);
+        }
+    }
+
+    private static final class Scopes {
+        private final int capacity;
+        private Ranking global;
+        private final Map<Long, Ranking> byCategory = new HashMap<>();
+        // Catégorie de chaque produit présent dans un classement par catégorie
+        private final Map<Long, Long> categoryOf = new HashMap<>();
+        // Classements tronqués devenus trop courts, à recharger hors verrou (null : le classement global)
+        private final Set<Long> toRefill = new HashSet<>();
+
+        Scopes(int capacity) {
+            this.capacity = capacity;
+            this.global = new Ranking(List.of(), capacity);
+        }
+
+        void loadCategory(Long categoryId, Ranking ranking) {
+            Ranking previous = byCategory.put(categoryId, ranking);
+            if (previous != null) {
+                previous.byId.keySet().forEach(id -> categoryOf.remove(id, categoryId));
+            }
+            ranking.byId.keySet().forEach(id -> categoryOf.put(id, categoryId));
+        }
+
+        // Les produits sans prix sont ignorés, comme par MAX(price)
+        void put(Long categoryId, ProductResponse response) {
+            Long productId = response.id();
+            Entry entry = response.price() == null ? null : new Entry(categoryId, response);
+            updateGlobal(productId, entry);
+            Long previousCategoryId = categoryOf.remove(productId);
+            if (previousCategoryId != null && !previousCategoryId.equals(categoryId)) {
+                updateCategory(previousCategoryId, productId, null);
+            }
+            updateCategory(categoryId, productId, entry);
+        }
+
+        void remove(Long productId) {
+            updateGlobal(productId, null);
+            Long categoryId = categoryOf.remove(productId);
+            if (categoryId != null) {
+                updateCategory(categoryId, productId, null);
+            }
+        }
+
+        void renameCategory(Long categoryId, String name) {
+            global.renameCategory(categoryId, name);
+            Ranking category = byCategory.get(categoryId);
+            if (category != null) {
+                category.renameCategory(categoryId, name);
+            }
+        }
+
+        // La suppression d'une catégorie supprime ses produits en cascade
+        void removeCategory(Long categoryId) {
+            global.removeCategory(categoryId);
+            if (global.needsRefill(capacity)) {
+                toRefill.add(null);
+            }
+            Ranking category = byCategory.remove(categoryId);
+            if (category != null) {
+                category.byId.keySet().forEach(id -> categoryOf.remove(id, categoryId));
+            }
+            toRefill.remove(categoryId);
+        }
+
+        private void updateGlobal(Long productId, Entry entry) {
+            global.update(productId, entry, capacity);
+            if (global.needsRefill(capacity)) {
+                toRefill.add(null);
+            }
+        }
+
+        private void updateCategory(Long categoryId, Long productId, Entry entry) {
+            // Catégorie absente : aucun produit à prix connu, son classement est complet
+            Ranking category = byCategory.computeIfAbsent(categoryId, id -> new Ranking(List.of(), capacity));
+            Entry evicted = category.update(productId, entry, capacity);
+            if (evicted != null) {
+                categoryOf.remove(evicted.id(), categoryId);
+            }
+            if (category.byId.containsKey(productId)) {
+                categoryOf.put(productId, categoryId);
+            }
+            if (category.needsRefill(capacity)) {
+                toRefill.add(categoryId);
+            }
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final int capacity;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Scopes scopes;
+    // Écritures arrivées pendant un chargement depuis la base, rejouées sur les classements chargés
+    private List<Consumer<Scopes>> pending;
+
+    public MostExpensiveIndex(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            @Value("${index.most-expensive.capacity:1000}") int capacity
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.capacity = capacity;
+    }
+
+    // ---------- Lectures ----------
+
+    public Optional<List<ProductResponse>> mostExpensive() {
+        return read(s -> ties(s.global));
+    }
+
+    public Optional<List<ProductResponse>> mostExpensive(Long categoryId) {
+        return read(s -> ties(s.byCategory.get(categoryId)));
+    }
+
+    public Optional<List<ProductResponse>> top(int limit) {
+        return read(s -> first(s.global, limit));
+    }
+
+    public Optional<List<ProductResponse>> top(Long categoryId, int limit) {
+        return read(s -> first(s.byCategory.get(categoryId), limit));
+    }
+
+    // Produits gardés, tous classements confondus (un produit compte une fois par classement)
+    int size() {
+        lock.readLock().lock();
+        try {
+            return scopes == null ? 0 : scopes.global.entries.size() + scopes.categoryOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- Mises à jour incrémentales ----------
+
+    public void put(Long categoryId, ProductResponse response) {
+        apply(s -> s.put(categoryId, response));
+        refillShortRankings();
+    }
+
+    public void remove(Long productId) {
+        apply(s -> s.remove(productId));
+        refillShortRankings();
+    }
+
+    public void renameCategory(Long categoryId, String name) {
+        apply(s -> s.renameCategory(categoryId, name));
+    }
+
+    public void removeCategory(Long categoryId) {
+        apply(s -> s.removeCategory(categoryId));
+        refillShortRankings();
+    }
+
+    // ---------- Chargement ----------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${index.most-expensive.refresh-interval:PT5M}",
+            fixedDelayString = "${index.most-expensive.refresh-interval:PT5M}"
+    )
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            withWriteLock(() -> pending = new ArrayList<>());
+
+            Scopes fresh = new Scopes(capacity);
+            try {
+                fresh.global = new Ranking(productRepository.findTopPriced(Limit.of(capacity)), capacity);
+                for (Long categoryId : categoryRepository.findAllIds()) {
+                    fresh.loadCategory(categoryId, new Ranking(
+                            productRepository.findTopPricedInCategory(categoryId, Limit.of(capacity)), capacity));
+                }
+            } catch (RuntimeException e) {
+                // On garde l'état précédent (ou le repli SQL) plutôt que de faire échouer le démarrage
+                withWriteLock(() -> pending = null);
+                log.warn("Most-expensive index rebuild failed", e);
+                return;
+            }
+
+            withWriteLock(() -> {
+                pending.forEach(mutation -> mutation.accept(fresh));
+                pending = null;
+                scopes = fresh;
+            });
+            log.info("Most-expensive index rebuilt for {} categories, {} products kept",
+                    fresh.byCategory.size(), fresh.global.entries.size() + fresh.categoryOf.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Recharge, sur le thread de l'écriture, les classements tronqués que les suppressions ont trop raccourcis
+    private void refillShortRankings() {
+        List<Long> rankings = new ArrayList<>();
+        withWriteLock(() -> {
+            if (scopes != null) {
+                rankings.addAll(scopes.toRefill);
+                scopes.toRefill.clear();
+            }
+        });
+        rankings.forEach(this::refill);
+    }
+
+    // categoryId null : classement global
+    private void refill(Long categoryId) {
+        if (rebuildLock.isHeldByCurrentThread() || !rebuildLock.tryLock()) {
+            // Chargement déjà en cours : la prochaine écriture réessaiera
+            withWriteLock(() -> {
+                if (scopes != null) {
+                    scopes.toRefill.add(categoryId);
+                }
+            });
+            return;
+        }
+        try {
+            withWriteLock(() -> pending = new ArrayList<>());
+
+            Scopes fresh = new Scopes(capacity);
+            try {
+                if (categoryId == null) {
+                    fresh.global = new Ranking(productRepository.findTopPriced(Limit.of(capacity)), capacity);
+                } else {
+                    fresh.loadCategory(categoryId, new Ranking(
+                            productRepository.findTopPricedInCategory(categoryId, Limit.of(capacity)), capacity));
+                }
+            } catch (RuntimeException e) {
+                withWriteLock(() -> pending = null);
+                log.warn("Most-expensive ranking refill failed", e);
+                return;
+            }
+
+            // Seul le classement rechargé est repris de fresh, après rejeu des écritures concurrentes
+            withWriteLock(() -> {
+                pending.forEach(mutation -> mutation.accept(fresh));
+                pending = null;
+                if (scopes == null) {
+                    return;
+                }
+                if (categoryId == null) {
+                    scopes.global = fresh.global;
+                } else if (scopes.byCategory.containsKey(categoryId) && fresh.byCategory.containsKey(categoryId)) {
+                    scopes.loadCategory(categoryId, fresh.byCategory.get(categoryId));
+                }
+            });
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Optional<List<ProductResponse>> read(Function<Scopes, List<ProductResponse>> query) {
+        lock.readLock().lock();
+        try {
+            return scopes == null ? Optional.empty() : Optional.ofNullable(query.apply(scopes));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Les mutations sont idempotentes : les rejouer sur un index qui les contient déjà est sans effet
+    private void apply(Consumer<Scopes> mutation) {
+        withWriteLock(() -> {
+            if (scopes != null) {
+                mutation.accept(scopes);
+            }
+            if (pending != null) {
+                pending.add(mutation);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Tous les produits au prix maximal (ex aequo compris) ; null si le classement ne permet pas de le savoir
+    private static List<ProductResponse> ties(Ranking ranking) {
+        if (ranking == null) {
+            return List.of();
+        }
+        if (ranking.entries.isEmpty()) {
+            return ranking.complete ? List.of() : null;
+        }
+        Double max = ranking.entries.first().response().price();
+        List<ProductResponse> result = new ArrayList<>();
+        for (Entry entry : ranking.entries) {
+            if (!entry.response().price().equals(max)) {
+                return result;
+            }
+            result.add(entry.response());
+        }
+        // Tout le classement est au prix max : d'autres ex aequo peuvent suivre
+        return ranking.complete ? result : null;
+    }
+
+    private static List<ProductResponse> first(Ranking ranking, int limit) {
+        if (ranking == null) {
+            return List.of();
+        }
+        if (!ranking.complete && limit > ranking.entries.size()) {
+            return null;
+        }
+        return ranking.entries.stream().limit(limit).map(Entry::response).toList();
+    }
+}
@@ -0,0 +1,20 @@
+package com.obs.productmanagement.index;
+
+import com.obs.productmanagement.dto.ProductResponse;
+
+import java.util.Date;
+
+// Ligne de chargement de MostExpensiveIndex : ProductResponse plus l'id de sa catégorie
+public record PricedProduct(
+        Long id,
+        String name,
+        String description,
+        Double price,
+        Date expiryDate,
+        Long categoryId,
+        String categoryName
+) {
+    public ProductResponse toResponse() {
+        return new ProductResponse(id, name, description, price, expiryDate, categoryName);
+    }
+}
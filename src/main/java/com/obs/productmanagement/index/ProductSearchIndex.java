@@ -0,0 +1,811 @@
+package com.obs.productmanagement.index;
+
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Recherche plein texte sur le nom et la description des produits : index inversé en mémoire,
+ * tenu à jour par ProductServiceImpl / CategoryServiceImpl comme {@link MostExpensiveIndex}.
+ * <p>
+ * Les termes sont normalisés (minuscules, sans accents). Un terme de la requête trouve aussi les
+ * termes qui le prolongent (préfixe, dès 2 caractères) et ceux à une ou deux fautes de frappe près
+ * (Levenshtein avec transpositions, première lettre juste, jamais sur les chiffres). Un produit
+ * doit correspondre à tous les termes de la requête ; le classement est un BM25 par champ, le nom
+ * pesant plus que la description.
+ * <p>
+ * Par document, l'index ne garde que l'id du produit et la longueur de ses deux champs, en plus
+ * des listes de documents par terme et par catégorie : les réponses des meilleurs résultats sont
+ * relues en base par id. Un document modifié ou supprimé est seulement marqué ; les documents
+ * marqués sont purgés quand ils dépassent le quart des documents vivants.
+ * <p>
+ * Reconstruit au démarrage puis périodiquement, par pages keyset sur l'id : chaque page est
+ * indexée pendant la lecture de la suivante, puis fusionnée. Tant que la première reconstruction
+ * n'est pas terminée, {@link #search} renvoie {@link Optional#empty()} et l'appelant retombe sur un
+ * LIKE SQL.
+ * <p>
+ * Fautes de frappe : les termes du dictionnaire sont aussi rangés par première lettre et longueur.
+ * Seules les longueurs à portée de la distance permise sont lues, et un masque des caractères
+ * présents écarte la plupart des candidats avant le calcul de distance. Les distances sont
+ * calculées hors du verrou, sur un instantané de ces listes ; le nombre de distances calculées et
+ * de variantes retenues est borné.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // Nombre maximal de termes du dictionnaire essayés pour un terme de la requête
+    static final int MAX_EXPANSIONS = 64;
+    // Dont fautes de frappe, et nombre maximal de distances d'édition calculées pour les trouver
+    static final int MAX_TYPO_EXPANSIONS = 16;
+    static final int MAX_TYPO_CANDIDATES = 2048;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int PAGE_SIZE = 4096;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float NAME_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_BOOST = 0.8f;
+    // Par faute de frappe : 0,6 à distance 1, 0,36 à distance 2
+    private static final float TYPO_BOOST = 0.6f;
+
+    // Numéros de documents croissants
+    private static class Documents {
+        protected int[] documents = new int[2];
+        protected int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        // Après une purge : numéros compactés (ordre conservé), -1 pour un document purgé
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int document = renumbered[documents[i]];
+                if (document >= 0) {
+                    moved(i, kept);
+                    documents[kept++] = document;
+                }
+            }
+            size = kept;
+        }
+
+        protected void moved(int from, int to) {
+        }
+    }
+
+    // Documents contenant un terme, avec ses occurrences : nom << 16 | description
+    private static final class Postings extends Documents {
+        private int[] frequencies = new int[2];
+
+        void add(int document, int frequency) {
+            add(document);
+            if (frequencies.length < documents.length) {
+                frequencies = Arrays.copyOf(frequencies, documents.length);
+            }
+            frequencies[size - 1] = frequency;
+        }
+
+        @Override
+        protected void moved(int from, int to) {
+            frequencies[to] = frequencies[from];
+        }
+
+        // Les documents de other suivent tous les nôtres une fois décalés
+        void append(Postings other, int offset) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.documents[i] + offset, other.frequencies[i]);
+            }
+        }
+    }
+
+    // Termes de même première lettre et de même longueur, en ajout seul : un instantané (tableaux, taille)
+    // reste valable hors du verrou, les ajouts suivants écrivant au-delà ou dans de nouveaux tableaux
+    private static final class TermBucket {
+        private String[] terms = new String[4];
+        private long[] masks = new long[4];
+        private int size;
+
+        void add(String term) {
+            if (size == terms.length) {
+                terms = Arrays.copyOf(terms, size * 2);
+                masks = Arrays.copyOf(masks, size * 2);
+            }
+            terms[size] = term;
+            masks[size] = mask(term);
+            size++;
+        }
+
+        Candidates snapshot() {
+            return new Candidates(terms, masks, size);
+        }
+    }
+
+    private record Candidates(String[] terms, long[] masks, int size) {
+    }
+
+    // Un terme de la requête : variantes trouvées sous le verrou, candidats aux fautes lus hors du verrou
+    private static final class Expansion {
+        private final String term;
+        private final Map<String, Float> variants = new HashMap<>();
+        private final List<Candidates> candidates = new ArrayList<>();
+
+        Expansion(String term) {
+            this.term = term;
+        }
+
+        // Longueurs les plus proches d'abord : les plafonds écartent les candidats les plus éloignés
+        void addTypos() {
+            int maxDistance = maxDistance(term);
+            long mask = mask(term);
+            int typos = 0;
+            int computed = 0;
+            for (Candidates bucket : candidates) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    if (typos >= MAX_TYPO_EXPANSIONS || computed >= MAX_TYPO_CANDIDATES
+                            || variants.size() >= MAX_EXPANSIONS) {
+                        return;
+                    }
+                    // Chaque modification change au plus deux bits du masque
+                    String candidate = bucket.terms()[i];
+                    if (Long.bitCount(mask ^ bucket.masks()[i]) > 2 * maxDistance || variants.containsKey(candidate)) {
+                        continue;
+                    }
+                    computed++;
+                    int distance = distance(term, candidate, maxDistance);
+                    if (distance <= maxDistance) {
+                        variants.put(candidate, (float) Math.pow(TYPO_BOOST, distance));
+                        typos++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        // Les mêmes termes par première lettre et longueur (voir bucketKey), pour les fautes de frappe
+        private Map<Integer, TermBucket> dictionary = new HashMap<>();
+        private final Map<Long, Documents> categories = new HashMap<>();
+        // Par document : id du produit et longueurs en termes (nom << 16 | description)
+        private long[] productIds = new long[16];
+        private int[] lengths = new int[16];
+        private final BitSet deleted = new BitSet();
+        private int nextDocument;
+        // Documents [0, sorted) : issus du chargement par id croissant, retrouvés par dichotomie
+        private int sorted;
+        // Documents ajoutés depuis : id du produit -> numéro
+        private final Map<Long, Integer> appended = new HashMap<>();
+        private int live;
+        private int dead;
+        private long nameLengths;
+        private long descriptionLengths;
+
+        void put(Long categoryId, ProductResponse response) {
+            remove(response.id());
+            appended.put(response.id(), add(response.id(), categoryId, response.name(), response.description()));
+        }
+
+        void remove(Long productId) {
+            int document = find(productId);
+            if (document >= 0) {
+                delete(document);
+                purgeIfNeeded();
+            }
+        }
+
+        void removeCategory(Long categoryId) {
+            Documents documents = categories.remove(categoryId);
+            if (documents == null) {
+                return;
+            }
+            for (int i = 0; i < documents.size; i++) {
+                if (!deleted.get(documents.documents[i])) {
+                    delete(documents.documents[i]);
+                }
+            }
+            purgeIfNeeded();
+        }
+
+        private int add(long productId, Long categoryId, String name, String description) {
+            List<String> nameTerms = terms(name);
+            List<String> descriptionTerms = terms(description);
+            int nameLength = Math.min(nameTerms.size(), 0xFFFF);
+            int descriptionLength = Math.min(descriptionTerms.size(), 0xFFFF);
+
+            int document = nextDocument++;
+            if (document == productIds.length) {
+                productIds = Arrays.copyOf(productIds, document * 2);
+                lengths = Arrays.copyOf(lengths, document * 2);
+            }
+            productIds[document] = productId;
+            lengths[document] = nameLength << 16 | descriptionLength;
+            categories.computeIfAbsent(categoryId, id -> new Documents()).add(document);
+            live++;
+            nameLengths += nameLength;
+            descriptionLengths += descriptionLength;
+
+            Map<String, int[]> counts = new HashMap<>();
+            nameTerms.forEach(term -> counts.computeIfAbsent(term, t -> new int[2])[0]++);
+            descriptionTerms.forEach(term -> counts.computeIfAbsent(term, t -> new int[2])[1]++);
+            counts.forEach((term, count) -> terms.computeIfAbsent(term, this::newTerm)
+                    .add(document, Math.min(count[0], 0xFFFF) << 16 | Math.min(count[1], 0xFFFF)));
+            return document;
+        }
+
+        private Postings newTerm(String term) {
+            dictionary.computeIfAbsent(bucketKey(term.charAt(0), term.length()), key -> new TermBucket()).add(term);
+            return new Postings();
+        }
+
+        private int find(Long productId) {
+            int document = Arrays.binarySearch(productIds, 0, sorted, productId);
+            if (document >= 0 && !deleted.get(document)) {
+                return document;
+            }
+            Integer added = appended.get(productId);
+            return added == null ? -1 : added;
+        }
+
+        // Le document reste dans les listes jusqu'à la purge ; la recherche le saute
+        private void delete(int document) {
+            deleted.set(document);
+            appended.remove(productIds[document], document);
+            live--;
+            dead++;
+            nameLengths -= lengths[document] >>> 16;
+            descriptionLengths -= lengths[document] & 0xFFFF;
+        }
+
+        private void purgeIfNeeded() {
+            if (dead > 0 && dead * 4 > live) {
+                purge();
+            }
+        }
+
+        // Retire les documents marqués de toutes les listes et renumérote les autres dans le même ordre
+        void purge() {
+            int[] renumbered = new int[nextDocument];
+            int kept = 0;
+            int keptSorted = 0;
+            for (int document = 0; document < nextDocument; document++) {
+                if (deleted.get(document)) {
+                    renumbered[document] = -1;
+                    continue;
+                }
+                renumbered[document] = kept;
+                productIds[kept] = productIds[document];
+                lengths[kept] = lengths[document];
+                if (document < sorted) {
+                    keptSorted++;
+                }
+                kept++;
+            }
+            for (Iterator<Postings> it = terms.values().iterator(); it.hasNext(); ) {
+                Postings postings = it.next();
+                postings.renumber(renumbered);
+                if (postings.size == 0) {
+                    it.remove();
+                }
+            }
+            // Nouveaux buckets sans les termes disparus : les instantanés en cours gardent les anciens
+            dictionary = new HashMap<>();
+            terms.keySet().forEach(this::newTerm);
+            for (Iterator<Documents> it = categories.values().iterator(); it.hasNext(); ) {
+                Documents documents = it.next();
+                documents.renumber(renumbered);
+                if (documents.size == 0) {
+                    it.remove();
+                }
+            }
+            appended.replaceAll((id, document) -> renumbered[document]);
+            int capacity = Math.max(16, kept + kept / 2);
+            if (productIds.length > 2 * capacity) {
+                productIds = Arrays.copyOf(productIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            deleted.clear();
+            dead = 0;
+            nextDocument = kept;
+            sorted = keptSorted;
+        }
+
+        // Tranche d'une reconstruction : ses documents suivent les nôtres, par id croissant
+        void merge(Segment slice) {
+            int offset = nextDocument;
+            if (offset + slice.nextDocument > productIds.length) {
+                int capacity = Math.max(productIds.length * 2, offset + slice.nextDocument);
+                productIds = Arrays.copyOf(productIds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            System.arraycopy(slice.productIds, 0, productIds, offset, slice.nextDocument);
+            System.arraycopy(slice.lengths, 0, lengths, offset, slice.nextDocument);
+            nextDocument += slice.nextDocument;
+            sorted = nextDocument;
+            slice.terms.forEach((term, postings) -> terms.computeIfAbsent(term, this::newTerm).append(postings, offset));
+            slice.categories.forEach((categoryId, documents) -> {
+                Documents merged = categories.computeIfAbsent(categoryId, id -> new Documents());
+                for (int i = 0; i < documents.size; i++) {
+                    merged.add(documents.documents[i] + offset);
+                }
+            });
+            live += slice.live;
+            nameLengths += slice.nameLengths;
+            descriptionLengths += slice.descriptionLengths;
+        }
+
+        List<Long> search(List<Expansion> query, int limit) {
+            if (query.isEmpty() || live == 0) {
+                return List.of();
+            }
+            // Le terme le plus sélectif d'abord : les intersections suivantes partent d'une petite liste
+            List<long[]> matches = new ArrayList<>(query.size());
+            for (Expansion expansion : query) {
+                long[] scored = scored(expansion.variants);
+                if (scored.length == 0) {
+                    return List.of();
+                }
+                matches.add(scored);
+            }
+            matches.sort(Comparator.comparingInt(m -> m.length));
+
+            long[] result = matches.get(0);
+            for (int i = 1; i < matches.size() && result.length > 0; i++) {
+                result = intersect(result, matches.get(i));
+            }
+            return top(result, limit);
+        }
+
+        // (document << 32 | bits du score) par document croissant, meilleur score des variantes du terme
+        // Une variante disparue depuis son expansion (hors du verrou) est ignorée
+        private long[] scored(Map<String, Float> variants) {
+            int total = 0;
+            for (String variant : variants.keySet()) {
+                Postings postings = terms.get(variant);
+                total += postings == null ? 0 : postings.size;
+            }
+            long[] scored = new long[total];
+            int n = 0;
+            float averageName = Math.max(1f, (float) nameLengths / live);
+            float averageDescription = Math.max(1f, (float) descriptionLengths / live);
+            for (Map.Entry<String, Float> variant : variants.entrySet()) {
+                Postings postings = terms.get(variant.getKey());
+                if (postings == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (live - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int document = postings.documents[i];
+                    if (deleted.get(document)) {
+                        continue;
+                    }
+                    int frequency = postings.frequencies[i];
+                    float score = variant.getValue() * Math.max(idf, 0f) * (
+                            NAME_WEIGHT * bm25(frequency >>> 16, lengths[document] >>> 16, averageName)
+                                    + DESCRIPTION_WEIGHT * bm25(frequency & 0xFFFF, lengths[document] & 0xFFFF, averageDescription));
+                    // Score positif : ses bits trient comme sa valeur
+                    scored[n++] = (long) document << 32 | Float.floatToIntBits(score);
+                }
+            }
+            if (variants.size() == 1) {
+                return n == total ? scored : Arrays.copyOf(scored, n);
+            }
+            Arrays.sort(scored, 0, n);
+            // Un document trouvé par plusieurs variantes garde le meilleur score (le dernier après tri)
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (i + 1 < n && scored[i] >>> 32 == scored[i + 1] >>> 32) {
+                    continue;
+                }
+                scored[kept++] = scored[i];
+            }
+            return Arrays.copyOf(scored, kept);
+        }
+        // Sous le verrou : terme exact (1), termes qu'il préfixe, et instantané des buckets à portée
+        // de fautes de frappe (même première lettre, longueur à maxDistance près), les plus proches d'abord
+        Expansion expand(String term) {
+            Expansion expansion = new Expansion(term);
+            if (terms.containsKey(term)) {
+                expansion.variants.put(term, 1f);
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                for (String candidate : terms.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                    if (expansion.variants.size() >= MAX_EXPANSIONS) {
+                        break;
+                    }
+                    expansion.variants.put(candidate, PREFIX_BOOST);
+                }
+            }
+            int maxDistance = maxDistance(term);
+            for (int delta = 0; delta <= maxDistance && maxDistance > 0; delta++) {
+                addCandidates(expansion, term.charAt(0), term.length() - delta);
+                if (delta > 0) {
+                    addCandidates(expansion, term.charAt(0), term.length() + delta);
+                }
+            }
+            return expansion;
+        }
+
+        private void addCandidates(Expansion expansion, char first, int length) {
+            TermBucket bucket = length > 0 ? dictionary.get(bucketKey(first, length)) : null;
+            if (bucket != null) {
+                expansion.candidates.add(bucket.snapshot());
+            }
+        }
+
+        private static float bm25(int frequency, int length, float averageLength) {
+            if (frequency == 0) {
+                return 0f;
+            }
+            return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+        }
+
+        // Documents présents des deux côtés, scores additionnés
+        private static long[] intersect(long[] left, long[] right) {
+            long[] result = new long[Math.min(left.length, right.length)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                long a = left[i] >>> 32;
+                long b = right[j] >>> 32;
+                if (a < b) {
+                    i++;
+                } else if (a > b) {
+                    j++;
+                } else {
+                    float score = Float.intBitsToFloat((int) left[i]) + Float.intBitsToFloat((int) right[j]);
+                    result[n++] = a << 32 | Float.floatToIntBits(score);
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        // Score décroissant puis id croissant : tas des "limit" meilleurs, le moins bon à la racine
+        private List<Long> top(long[] matches, int limit) {
+            int[] heap = new int[Math.min(limit, matches.length)];
+            int size = 0;
+            for (int m = 0; m < matches.length; m++) {
+                if (size < heap.length) {
+                    heap[size] = m;
+                    siftUp(heap, size++, matches);
+                } else if (before(matches[m], matches[heap[0]])) {
+                    heap[0] = m;
+                    siftDown(heap, size, matches);
+                }
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = heap[i];
+            }
+            Arrays.sort(order, (x, y) -> before(matches[x], matches[y]) ? -1 : before(matches[y], matches[x]) ? 1 : 0);
+            List<Long> result = new ArrayList<>(size);
+            for (Integer m : order) {
+                result.add(productIds[(int) (matches[m] >>> 32)]);
+            }
+            return result;
+        }
+
+        private boolean before(long a, long b) {
+            float scoreA = Float.intBitsToFloat((int) a);
+            float scoreB = Float.intBitsToFloat((int) b);
+            if (scoreA != scoreB) {
+                return scoreA > scoreB;
+            }
+            return productIds[(int) (a >>> 32)] < productIds[(int) (b >>> 32)];
+        }
+
+        private void siftUp(int[] heap, int i, long[] matches) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!before(matches[heap[parent]], matches[heap[i]])) {
+                    return;
+                }
+                swap(heap, i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, long[] matches) {
+            int i = 0;
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (before(matches[heap[worst]], matches[heap[child]])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(heap, i, worst);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Segment segment;
+    // Écritures arrivées pendant une reconstruction, rejouées sur le nouvel index
+    private List<Consumer<Segment>> pending;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    // ---------- Lectures ----------
+
+    public Optional<List<ProductResponse>> search(String query, int limit) {
+        return matchingIds(query, limit).map(this::responses);
+    }
+
+    // Ids des meilleurs produits, du plus pertinent au moins pertinent (sans accès à la base)
+    Optional<List<Long>> matchingIds(String query, int limit) {
+        List<String> queryTerms = List.copyOf(new LinkedHashSet<>(terms(query)));
+        Optional<List<Expansion>> expansions = read(s -> queryTerms.stream().map(s::expand).toList());
+        if (expansions.isEmpty()) {
+            return Optional.empty();
+        }
+        // Distances d'édition hors du verrou : les écritures ne les attendent pas
+        expansions.get().forEach(Expansion::addTypos);
+        return read(s -> s.search(expansions.get(), limit));
+    }
+
+    public int documentCount() {
+        return read(s -> s.live).orElse(0);
+    }
+
+    public int termCount() {
+        return read(s -> s.terms.size()).orElse(0);
+    }
+
+    // Une seule requête par id pour les résultats, dans l'ordre du classement ; un produit supprimé entre-temps est sauté
+    private List<ProductResponse> responses(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponse> byId = new HashMap<>();
+        productRepository.findResponsesByIds(ids).forEach(response -> byId.put(response.id(), response));
+        List<ProductResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponse response = byId.get(id);
+            if (response != null) {
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
+    // ---------- Mises à jour incrémentales ----------
+
+    public void put(Long categoryId, ProductResponse response) {
+        apply(s -> s.put(categoryId, response));
+    }
+
+    public void remove(Long productId) {
+        apply(s -> s.remove(productId));
+    }
+
+    // Le nom de catégorie n'est pas gardé : un renommage n'a rien à mettre à jour
+    public void removeCategory(Long categoryId) {
+        apply(s -> s.removeCategory(categoryId));
+    }
+
+    // ---------- Reconstruction ----------
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${index.search.refresh-interval:PT10M}",
+            fixedDelayString = "${index.search.refresh-interval:PT10M}"
+    )
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            withWriteLock(() -> pending = new ArrayList<>());
+
+            long start = System.nanoTime();
+            Segment fresh;
+            try {
+                fresh = build(afterId -> productRepository.findIndexPage(afterId, Limit.of(PAGE_SIZE)));
+            } catch (RuntimeException e) {
+                withWriteLock(() -> pending = null);
+                log.warn("Product search index rebuild failed", e);
+                return;
+            }
+
+            withWriteLock(() -> {
+                pending.forEach(mutation -> mutation.accept(fresh));
+                pending = null;
+                segment = fresh;
+            });
+            log.info("Product search index rebuilt with {} products and {} terms in {} ms",
+                    fresh.live, fresh.terms.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /*
+     * Pages de PAGE_SIZE produits après l'id donné. Chaque page est indexée en tâche de fond pendant
+     * la lecture de la suivante, puis fusionnée dans l'ordre : au plus deux pages en mémoire, et des
+     * numéros de documents croissants avec les ids.
+     */
+    private static Segment build(Function<Long, List<IndexedProduct>> pages) {
+        Segment merged = new Segment();
+        CompletableFuture<Segment> indexing = CompletableFuture.completedFuture(new Segment());
+        long afterId = 0;
+        List<IndexedProduct> page;
+        do {
+            page = pages.apply(afterId);
+            List<IndexedProduct> rows = page;
+            merged.merge(indexing.join());
+            indexing = CompletableFuture.supplyAsync(() -> {
+                Segment slice = new Segment();
+                rows.forEach(row -> slice.add(row.id(), row.categoryId(), row.name(), row.description()));
+                return slice;
+            });
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == PAGE_SIZE);
+        merged.merge(indexing.join());
+        return merged;
+    }
+
+    // Utilisé par le benchmark : charge des lignes triées par id sans passer par le repository
+    void load(List<IndexedProduct> rows) {
+        int[] next = {0};
+        Segment fresh = build(afterId -> {
+            List<IndexedProduct> page = rows.subList(next[0], Math.min(rows.size(), next[0] + PAGE_SIZE));
+            next[0] += page.size();
+            return page;
+        });
+        withWriteLock(() -> segment = fresh);
+    }
+
+    private <T> Optional<T> read(Function<Segment, T> query) {
+        lock.readLock().lock();
+        try {
+            return segment == null ? Optional.empty() : Optional.of(query.apply(segment));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Les mutations sont idempotentes : les rejouer sur un index qui les contient déjà est sans effet
+    private void apply(Consumer<Segment> mutation) {
+        withWriteLock(() -> {
+            if (segment != null) {
+                mutation.accept(segment);
+            }
+            if (pending != null) {
+                pending.add(mutation);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------- Analyse du texte ----------
+
+    // Lettres et chiffres en minuscules, accents retirés ("Écran 4K" -> [ecran, 4k])
+    static List<String> terms(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    // Comme la fuzziness AUTO d'Elasticsearch : aucune faute sous 3 caractères, une jusqu'à 5, deux au-delà.
+    // Jamais pour un terme avec des chiffres : "4k" ou "128go" ne doivent pas trouver "8k" ou "256go"
+    static int maxDistance(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return 0;
+            }
+        }
+        return term.length() < 3 ? 0 : term.length() <= 5 ? 1 : 2;
+    }
+
+    private static int bucketKey(char first, int length) {
+        return first << 16 | Math.min(length, 0xFFFF);
+    }
+
+    // Bits des caractères présents : a-z, 0-9, puis les autres repliés sur les bits restants
+    static long mask(String term) {
+        long mask = 0;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            int bit = c >= 'a' && c <= 'z' ? c - 'a' : c >= '0' && c <= '9' ? 26 + c - '0' : 36 + c % 28;
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    // Distance d'édition avec transpositions, arrêtée dès qu'elle dépasse max (renvoie alors max + 1)
+    static int distance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -0,0 +1,308 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender asynchrone pour les logs JSON des services : le thread de la requête dépose
+ * l'événement dans un anneau borné (sans verrou, plusieurs producteurs, un seul consommateur)
+ * et repart ; un thread dédié vide l'anneau par lots, les passe aux appenders attachés
+ * puis vide le tampon du fichier une seule fois par lot.
+ * <p>
+ * Les appenders attachés doivent être configurés avec {@code immediateFlush=false}, sinon
+ * chaque événement reste un write() système. Quand l'anneau est plein, {@link OverflowPolicy}
+ * décide entre perdre l'événement (compté dans {@link #getDroppedCount()}) et faire attendre
+ * l'appelant.
+ */
+public class BatchingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        /** Tout événement qui ne tient pas est perdu : la requête n'attend jamais. */
+        DROP,
+        /** TRACE à INFO sont perdus, WARN et ERROR attendent une place. */
+        DROP_BELOW_WARN,
+        /** Tout appelant attend une place : aucune perte, mais le disque freine les requêtes. */
+        BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private int capacity = 8192;
+    private int batchSize = 512;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BELOW_WARN;
+    private int maxFlushTime = 1000;
+
+    private Ring ring;
+    private Thread writer;
+    private volatile boolean running;
+    // Vrai quand le thread d'écriture est (ou va être) parqué : les producteurs le réveillent
+    private volatile boolean writerParked;
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // Délai maximal (ms) accordé à l'arrêt pour écrire ce qui reste dans l'anneau
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueSize() {
+        return ring == null ? 0 : ring.size();
+    }
+
+    public int getCapacity() {
+        return ring == null ? capacity : ring.capacity();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to [" + name + "]");
+            return;
+        }
+        if (capacity < 2 || batchSize < 1) {
+            addError("Invalid capacity " + capacity + " or batchSize " + batchSize + " for [" + name + "]");
+            return;
+        }
+        ring = new Ring(capacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "log-writer-" + name);
+        writer.setDaemon(true);
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            addWarn("[" + name + "] stopped with " + ring.size() + " events still queued");
+        }
+        if (getDroppedCount() > 0) {
+            addInfo("[" + name + "] dropped " + getDroppedCount() + " events since start");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // MDC, nom du thread et message formaté sont figés tant qu'on est sur le thread appelant
+        event.prepareForDeferredProcessing();
+
+        boolean mayWait = overflowPolicy == OverflowPolicy.BLOCK
+                || (overflowPolicy == OverflowPolicy.DROP_BELOW_WARN && event.getLevel().isGreaterOrEqual(Level.WARN));
+        while (!ring.offer(event)) {
+            if (!mayWait || !isStarted()) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drainLoop() {
+        long reportedDrops = 0;
+        long lastReport = System.nanoTime();
+
+        while (running || !ring.isEmpty()) {
+            int written = 0;
+            ILoggingEvent event;
+            while (written < batchSize && (event = ring.poll()) != null) {
+                appenders.appendLoopOnAppenders(event);
+                written++;
+            }
+            if (written > 0) {
+                flush();
+                continue;
+            }
+
+            long drops = dropped.sum();
+            if (drops != reportedDrops && System.nanoTime() - lastReport >= DROP_REPORT_INTERVAL_NANOS) {
+                addWarn("[" + name + "] ring buffer full, " + (drops - reportedDrops) + " events dropped");
+                reportedDrops = drops;
+                lastReport = System.nanoTime();
+            }
+
+            writerParked = true;
+            if (running && ring.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    // Un seul flush par lot ; seul ce thread écrit dans les appenders attachés
+    private void flush() {
+        Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders();
+        while (it.hasNext()) {
+            if (it.next() instanceof OutputStreamAppender<ILoggingEvent> out) {
+                OutputStream stream = out.getOutputStream();
+                if (stream == null) {
+                    continue;
+                }
+                try {
+                    stream.flush();
+                } catch (IOException e) {
+                    addError("Failed to flush [" + out.getName() + "]", e);
+                }
+            }
+        }
+    }
+
+    // ---------- AppenderAttachable ----------
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    /*
+     * File bornée plusieurs producteurs / un consommateur (schéma de D. Vyukov) : chaque case porte
+     * un numéro de séquence qui indique si elle est libre pour la position pos (seq == pos) ou
+     * publiée (seq == pos + 1). Les producteurs ne se disputent que le CAS sur tail.
+     */
+    private static final class Ring {
+        private final AtomicReferenceArray<ILoggingEvent> slots;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        // Lu par size() depuis d'autres threads, écrit par le seul consommateur
+        private volatile long head;
+
+        Ring(int requestedCapacity) {
+            int size = Integer.highestOneBit(requestedCapacity - 1) << 1;
+            slots = new AtomicReferenceArray<>(size);
+            sequences = new AtomicLongArray(size);
+            mask = size - 1;
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(ILoggingEvent event) {
+            long pos = tail.get();
+            while (true) {
+                int index = (int) (pos & mask);
+                long gap = sequences.get(index) - pos;
+                if (gap == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots.lazySet(index, event);
+                        sequences.set(index, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (gap < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        ILoggingEvent poll() {
+            long pos = head;
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                return null;
+            }
+            ILoggingEvent event = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, pos + mask + 1);
+            head = pos + 1;
+            return event;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int) (head & mask)) != head + 1;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.obs.productmanagement.logging;
 
-import com.obs.productmanagement.security.SecurityUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Capture le principal (déjà posé par JwtAuthenticationFilter) et la requête dans le
+ * {@link RequestContext} du thread. userId, userEmail, httpMethod et httpPath n'arrivent dans le
+ * MDC qu'au premier log émis (RequestContextTurboFilter, déclaré dans logback-spring.xml). Le MDC
+ * est vidé en fin de requête, y compris les clés posées par les services.
+ */
 @Component
 public class LoggingMdcFilter extends OncePerRequestFilter {
 
@@ -18,19 +22,13 @@ public class LoggingMdcFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        RequestContext context = RequestContext.open(request);
         try {
-            Long userId = SecurityUtils.getCurrentUserId();
-            String email = SecurityUtils.getCurrentUserEmail();
-
-            if (userId != null) MDC.put("userId", String.valueOf(userId));
-            if (email != null) MDC.put("userEmail", email);
-
-            MDC.put("httpMethod", request.getMethod());
-            MDC.put("httpPath", request.getRequestURI());
-
             chain.doFilter(request, response);
         } finally {
-            MDC.clear();
+            if (context != null) {
+                context.close();
+            }
         }
     }
 }
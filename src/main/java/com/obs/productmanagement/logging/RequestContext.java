@@ -0,0 +1,106 @@
+package com.obs.productmanagement.logging;
+
+import com.obs.productmanagement.dto.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Contexte de la requête en cours pour les logs : le principal et la requête sont capturés une
+ * seule fois par {@link LoggingMdcFilter}, par simple affectation de références.
+ * <p>
+ * Le MDC n'est rempli qu'au premier log réellement émis pendant la requête
+ * ({@link RequestContextTurboFilter}) : une requête qui ne logue rien ne formate pas le userId,
+ * ne touche pas au MDC et n'alloue rien. Une instance par thread, réutilisée de requête en
+ * requête (avec les threads virtuels, un thread par requête : une instance par requête).
+ */
+public final class RequestContext {
+
+    public static final String USER_ID = "userId";
+    public static final String USER_EMAIL = "userEmail";
+    public static final String HTTP_METHOD = "httpMethod";
+    public static final String HTTP_PATH = "httpPath";
+
+    // Sans valeur initiale : un thread qui logue hors requête n'y crée rien
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    private boolean open;
+    private boolean mdcFilled;
+    private UserPrincipal principal;
+    private HttpServletRequest request;
+
+    private RequestContext() {
+    }
+
+    /**
+     * Ouvre le contexte du thread courant pour cette requête, ou renvoie null s'il est déjà
+     * ouvert (dispatch imbriqué) : c'est alors l'appelant d'origine qui le fermera.
+     */
+    static RequestContext open(HttpServletRequest request) {
+        RequestContext context = CURRENT.get();
+        if (context == null) {
+            context = new RequestContext();
+            CURRENT.set(context);
+        } else if (context.open) {
+            return null;
+        }
+        context.open = true;
+        context.request = request;
+        context.principal = currentPrincipal();
+        return context;
+    }
+
+    // Contexte de la requête en cours sur ce thread, null hors requête
+    public static RequestContext active() {
+        RequestContext context = CURRENT.get();
+        return context != null && context.open ? context : null;
+    }
+
+    // MDC vidé en entier : une clé posée pendant la requête ("event"...) ne doit pas passer à la suivante
+    void close() {
+        MDC.clear();
+        mdcFilled = false;
+        principal = null;
+        request = null;
+        open = false;
+    }
+
+    // Appelé avant la création d'un événement de log : les valeurs ne sont formatées qu'ici
+    void fillMdc() {
+        if (mdcFilled) {
+            return;
+        }
+        mdcFilled = true;
+        if (principal != null) {
+            if (principal.id() != null) MDC.put(USER_ID, principal.id().toString());
+            if (principal.email() != null) MDC.put(USER_EMAIL, principal.email());
+        }
+        MDC.put(HTTP_METHOD, request.getMethod());
+        MDC.put(HTTP_PATH, request.getRequestURI());
+    }
+
+    boolean isMdcFilled() {
+        return mdcFilled;
+    }
+
+    public UserPrincipal principal() {
+        return principal;
+    }
+
+    public Long userId() {
+        return principal != null ? principal.id() : null;
+    }
+
+    public HttpServletRequest request() {
+        return request;
+    }
+
+    private static UserPrincipal currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+}
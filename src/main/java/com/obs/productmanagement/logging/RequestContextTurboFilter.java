@@ -0,0 +1,27 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/*
+ * Appelé par Logback avant chaque décision de log, y compris pour les niveaux désactivés : on ne
+ * fait donc qu'une lecture de ThreadLocal et une comparaison de niveau. Si l'événement va être
+ * émis, le MDC est rempli depuis RequestContext avant que l'événement ne le copie.
+ * Ne décide rien (NEUTRAL) : les niveaux et les autres filtres s'appliquent normalement.
+ */
+public class RequestContextTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        RequestContext context = RequestContext.active();
+        // getEffectiveLevel() et non isEnabledFor(), qui rappellerait les turbo filtres
+        if (context != null && !context.isMdcFilled() && level != null
+                && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            context.fillMdc();
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,46 @@
+package com.obs.productmanagement.metrics;
+
+import com.obs.productmanagement.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/*
+ * Compte les réponses d'erreur produites par GlobalExceptionHandler (api.errors, tags code et status),
+ * au moment où l'ErrorResponse est écrite : les handlers n'ont pas à connaître les métriques.
+ */
+@RestControllerAdvice
+public class ErrorResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    public ErrorResponseMetricsAdvice(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof ErrorResponse error) {
+            Counter.builder("api.errors")
+                    .description("Error responses returned by GlobalExceptionHandler")
+                    .tag("code", String.valueOf(error.error()))
+                    .tag("status", String.valueOf(error.status()))
+                    .register(meterRegistry)
+                    .increment();
+        }
+        return body;
+    }
+}
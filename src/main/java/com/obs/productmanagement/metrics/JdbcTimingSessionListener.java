@@ -0,0 +1,50 @@
+package com.obs.productmanagement.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps passé dans les appels JDBC d'exécution (requêtes, mises à jour, batchs) émis par Hibernate.
+ * <p>
+ * Hibernate instancie ce listener pour chaque session (hibernate.session.events.auto, voir
+ * {@link MetricsConfig}) : il n'est pas un bean Spring et enregistre donc dans le registre global,
+ * auquel Spring Boot rattache le registre Prometheus. Une session n'est utilisée que par un
+ * thread à la fois, le champ start n'a pas besoin d'être protégé.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private static final Timer STATEMENTS = timer("statement");
+    private static final Timer BATCHES = timer("batch");
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        STATEMENTS.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        BATCHES.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(String type) {
+        return Timer.builder("jdbc.execution")
+                .description("Time spent executing JDBC statements issued by Hibernate")
+                .tag("type", type)
+                .register(Metrics.globalRegistry);
+    }
+}
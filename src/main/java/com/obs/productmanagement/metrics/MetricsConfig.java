@@ -0,0 +1,109 @@
+package com.obs.productmanagement.metrics;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.obs.productmanagement.analytics.LiveUserProfiles;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.cache.EncodedResponseCache;
+import com.obs.productmanagement.index.ProductSearchIndex;
+import com.obs.productmanagement.logging.BatchingAsyncAppender;
+import com.obs.productmanagement.security.LoginRateLimiter;
+import com.obs.productmanagement.security.PasswordVerifier;
+import com.obs.productmanagement.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métriques exposées sur /actuator/prometheus, en plus de celles de Spring Boot (JVM, Hikari, Tomcat) :
+ * <ul>
+ *   <li>http.server.requests étiqueté par méthode de contrôleur ({@link HandlerObservationConvention}) ;</li>
+ *   <li>jdbc.execution, temps des appels JDBC d'Hibernate ({@link JdbcTimingSessionListener}) ;</li>
+ *   <li>security.jwt.verification (JwtService) et api.errors ({@link ErrorResponseMetricsAdvice}) ;</li>
+ *   <li>l'état des caches, limiteurs et files internes, lus à chaque collecte (aucun coût par requête).</li>
+ * </ul>
+ * Les histogrammes (buckets Prometheus et percentiles) se règlent par management.metrics.distribution.*.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new HandlerObservationConvention();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcTimingCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                JdbcTimingSessionListener.class.getName());
+    }
+
+    @Bean
+    public MeterBinder applicationMeters(
+            PasswordVerifier passwordVerifier,
+            LoginRateLimiter loginRateLimiter,
+            VerifiedTokenCache tokenCache,
+            CategoryCache categoryCache,
+            EncodedResponseCache encodedResponseCache,
+            LiveUserProfiles liveUserProfiles,
+            ProductSearchIndex productSearchIndex
+    ) {
+        return registry -> {
+            gauge(registry, "security.password.verify.queue", passwordVerifier, PasswordVerifier::queueDepth);
+            gauge(registry, "security.password.verify.active", passwordVerifier, PasswordVerifier::activeCount);
+            counter(registry, "security.password.verify.rejected", passwordVerifier, PasswordVerifier::rejectedCount);
+            counter(registry, "security.password.signup.rejected", passwordVerifier, PasswordVerifier::signupRejectedCount);
+
+            FunctionCounter.builder("security.login.throttled", loginRateLimiter, LoginRateLimiter::rejectedByLogin)
+                    .tag("scope", "login").register(registry);
+            FunctionCounter.builder("security.login.throttled", loginRateLimiter, LoginRateLimiter::rejectedByIp)
+                    .tag("scope", "ip").register(registry);
+            gauge(registry, "security.login.tracked.keys", loginRateLimiter, LoginRateLimiter::trackedKeys);
+
+            cache(registry, "jwt", tokenCache, VerifiedTokenCache::size, VerifiedTokenCache::hitCount,
+                    VerifiedTokenCache::missCount, VerifiedTokenCache::evictionCount);
+            cache(registry, "categories", categoryCache, CategoryCache::size, CategoryCache::hitCount,
+                    CategoryCache::missCount, CategoryCache::evictionCount);
+            cache(registry, "responses", encodedResponseCache, EncodedResponseCache::size,
+                    EncodedResponseCache::hitCount, EncodedResponseCache::missCount, EncodedResponseCache::evictionCount);
+
+            gauge(registry, "index.search.documents", productSearchIndex, ProductSearchIndex::documentCount);
+            gauge(registry, "index.search.terms", productSearchIndex, ProductSearchIndex::termCount);
+
+            gauge(registry, "profiles.tracked.users", liveUserProfiles, LiveUserProfiles::trackedUsers);
+            counter(registry, "profiles.untracked.events", liveUserProfiles, LiveUserProfiles::untrackedEvents);
+
+            // Appender des logs JSON des services, s'il est configuré (logback-spring.xml)
+            LoggerContext logback = (LoggerContext) LoggerFactory.getILoggerFactory();
+            if (logback.getLogger("com.obs.productmanagement.service").getAppender("LPS_JSON")
+                    instanceof BatchingAsyncAppender appender) {
+                counter(registry, "logging.async.dropped", appender, BatchingAsyncAppender::getDroppedCount);
+                gauge(registry, "logging.async.queue", appender, BatchingAsyncAppender::getQueueSize);
+            }
+        };
+    }
+
+    private static <T> void cache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> size,
+                                  ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> evictions) {
+        Gauge.builder("cache.size", cache, size).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.gets", cache, hits).tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses).tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, evictions).tag("cache", name).register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+}
@@ -15,7 +15,10 @@ import java.util.Date;
 @NoArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids réservés par blocs de 50 dans id_generator (V3) : pas d'INSERT immédiat, batching JDBC possible
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "product", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -10,19 +10,24 @@ import lombok.Setter;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private Integer age;
 
-    @Column(nullable = false)
+    // Identifiant de connexion : unique et indexé (V4), comme name (indexé seulement)
+    @Column(nullable = false, unique = true)
     private String email;
 
+    // Hash préfixé par l'algorithme ({bcrypt}...) ; les anciennes lignes en clair sont
+    // re-hachées à la première connexion réussie
     @Column(nullable = false)
     private String password;
 
@@ -2,9 +2,15 @@ package com.obs.productmanagement.repository;
 
 import com.obs.productmanagement.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
+
+    @Query("SELECT c.id FROM Category c")
+    List<Long> findAllIds();
 }
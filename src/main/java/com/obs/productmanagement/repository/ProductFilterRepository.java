@@ -0,0 +1,19 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.dto.CategoryFacet;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Requêtes à critères dynamiques de ProductRepository, en projection DTO comme les requêtes @Query
+public interface ProductFilterRepository {
+
+    // Produits triés par prix puis id (ordre de idx_product_price et idx_product_category_price)
+    List<ProductResponse> findFiltered(Specification<Product> filter, Limit limit);
+
+    // Nombre de produits par catégorie, catégories sans produit exclues, triées par nom
+    List<CategoryFacet> countByCategory(Specification<Product> filter);
+}
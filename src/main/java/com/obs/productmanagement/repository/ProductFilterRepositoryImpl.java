@@ -0,0 +1,64 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.dto.CategoryFacet;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class ProductFilterRepositoryImpl implements ProductFilterRepository {
+
+    private final EntityManager entityManager;
+
+    ProductFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductResponse> findFiltered(Specification<Product> filter, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category");
+
+        query.select(cb.construct(ProductResponse.class,
+                product.get("id"), product.get("name"), product.get("description"),
+                product.get("price"), product.get("expiryDate"), category.get("name")));
+        where(query, filter, product, cb);
+        query.orderBy(cb.asc(product.get("price")), cb.asc(product.get("id")));
+
+        TypedQuery<ProductResponse> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+
+    @Override
+    public List<CategoryFacet> countByCategory(Specification<Product> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CategoryFacet> query = cb.createQuery(CategoryFacet.class);
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category");
+
+        query.select(cb.construct(CategoryFacet.class, category.get("id"), category.get("name"), cb.count(product)));
+        where(query, filter, product, cb);
+        query.groupBy(category.get("id"), category.get("name"));
+        query.orderBy(cb.asc(category.get("name")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Une Specification sans critère renvoie null : pas de clause WHERE
+    private static void where(CriteriaQuery<?> query, Specification<Product> filter, Root<Product> product, CriteriaBuilder cb) {
+        Predicate predicate = filter.toPredicate(product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -1,31 +1,195 @@
 package com.obs.productmanagement.repository;
 
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.index.IndexedProduct;
+import com.obs.productmanagement.index.PricedProduct;
 import com.obs.productmanagement.model.Product;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/*
+ * Les lectures renvoient directement des ProductResponse (projection DTO avec jointure
+ * sur la catégorie) : une seule requête SQL, pas de chargement LAZY de category par ligne.
+ */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFilterRepository {
     boolean existsProductByName(String name);
+
+    // Import en masse : unicité des noms vérifiée en une requête par lot
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    Set<String> findExistingNames(Collection<String> names);
+
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           """)
+    List<ProductResponse> findAllResponses();
+
     @Query("""
-           SELECT p FROM Product p
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.id = :id
+           """)
+    Optional<ProductResponse> findResponseById(Long id);
+
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
            WHERE p.price = (SELECT MAX(p2.price) FROM Product p2)
            """)
-    List<Product> findMostExpensiveProducts();
+    List<ProductResponse> findMostExpensiveProducts();
+
+    // Top-K par prix, utilisé tant que MostExpensiveIndex n'est pas construit
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.price IS NOT NULL
+           ORDER BY p.price DESC, p.id
+           """)
+    List<ProductResponse> findTopByPrice(Limit limit);
+
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE c.id = :categoryId AND p.price IS NOT NULL
+           ORDER BY p.price DESC, p.id
+           """)
+    List<ProductResponse> findTopByPriceInCategory(Long categoryId, Limit limit);
+
+    // Chargement de MostExpensiveIndex : les premiers par prix seulement, via idx_product_price / idx_product_category_price
+    @Query("""
+           SELECT new com.obs.productmanagement.index.PricedProduct(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.id, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.price IS NOT NULL
+           ORDER BY p.price DESC, p.id
+           """)
+    List<PricedProduct> findTopPriced(Limit limit);
+
+    @Query("""
+           SELECT new com.obs.productmanagement.index.PricedProduct(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.id, c.name)
+           FROM Product p JOIN p.category c
+           WHERE c.id = :categoryId AND p.price IS NOT NULL
+           ORDER BY p.price DESC, p.id
+           """)
+    List<PricedProduct> findTopPricedInCategory(Long categoryId, Limit limit);
+
+    // Chargement de ProductSearchIndex par pages keyset sur l'id, produits sans prix compris
+    @Query("""
+           SELECT new com.obs.productmanagement.index.IndexedProduct(p.id, p.name, p.description, c.id)
+           FROM Product p JOIN p.category c
+           WHERE p.id > :afterId
+           ORDER BY p.id
+           """)
+    List<IndexedProduct> findIndexPage(Long afterId, Limit limit);
+
+    // Réponses des meilleurs résultats de ProductSearchIndex, qui ne garde pas le texte des produits
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.id IN :ids
+           """)
+    List<ProductResponse> findResponsesByIds(Collection<Long> ids);
+
+    // Recherche utilisée tant que ProductSearchIndex n'est pas construit : sous-chaîne, sans classement
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :#{escape([0])}, '%')) ESCAPE :#{escapeCharacter()}
+              OR LOWER(p.description) LIKE LOWER(CONCAT('%', :#{escape([0])}, '%')) ESCAPE :#{escapeCharacter()}
+           ORDER BY p.id
+           """)
+    List<ProductResponse> searchByText(String text, Limit limit);
 
     // Tous les produits d'une catégorie
-    List<Product> findByCategoryId(Long categoryId);
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE c.id = :categoryId
+           """)
+    List<ProductResponse> findByCategoryId(Long categoryId);
 
     // Produits les plus chers d'une catégorie
     @Query("""
-           SELECT p FROM Product p
-           WHERE p.category.id = :categoryId
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE c.id = :categoryId
              AND p.price = (
                SELECT MAX(p2.price) FROM Product p2 WHERE p2.category.id = :categoryId
            )
            """)
-    List<Product> findMostExpensiveProductsByCategoryId(Long categoryId);
+    List<ProductResponse> findMostExpensiveProductsByCategoryId(Long categoryId);
+
+    // Pagination keyset par id : pas d'OFFSET, on repart du dernier id vu
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.id > :afterId
+           ORDER BY p.id
+           """)
+    List<ProductResponse> findPageOrderById(Long afterId, Limit limit);
+
+    // Pagination keyset par (price, id) : l'id départage les prix égaux
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.price IS NOT NULL
+           ORDER BY p.price, p.id
+           """)
+    List<ProductResponse> findFirstPageOrderByPrice(Limit limit);
+
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.price > :afterPrice
+              OR (p.price = :afterPrice AND p.id > :afterId)
+           ORDER BY p.price, p.id
+           """)
+    List<ProductResponse> findPageOrderByPrice(Double afterPrice, Long afterId, Limit limit);
+
+    // Produits sans prix, après tous les produits à prix en tri par prix : groupe final par id
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           WHERE p.price IS NULL AND p.id > :afterId
+           ORDER BY p.id
+           """)
+    List<ProductResponse> findUnpricedPageOrderById(Long afterId, Limit limit);
+
+    // Parcours complet en flux (curseur JDBC) : à consommer dans une transaction.
+    // Les DTO ne sont pas gérés par le contexte de persistance, la mémoire reste constante.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           SELECT new com.obs.productmanagement.dto.ProductResponse(
+               p.id, p.name, p.description, p.price, p.expiryDate, c.name)
+           FROM Product p JOIN p.category c
+           ORDER BY p.id
+           """)
+    Stream<ProductResponse> streamAll();
 }
@@ -0,0 +1,67 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/*
+ * Critères de filtrage des produits, combinés en une seule clause WHERE. Chaque critère porte sur
+ * une colonne indexée (V2, V5) : la base choisit l'index du critère le plus sélectif.
+ * Le critère de catégorie compare la clé étrangère, sans jointure.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // Prix et date d'expiration : critères communs aux produits renvoyés et aux facettes
+    public static Specification<Product> priceAndExpiry(ProductFilter filter) {
+        List<Specification<Product>> specs = new ArrayList<>();
+        if (filter.minPrice() != null) {
+            specs.add(priceAtLeast(filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            specs.add(priceAtMost(filter.maxPrice()));
+        }
+        if (filter.expiresFrom() != null) {
+            specs.add(expiresFrom(filter.expiresFrom()));
+        }
+        if (filter.expiresBefore() != null) {
+            specs.add(expiresBefore(filter.expiresBefore()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Product> matching(ProductFilter filter) {
+        Specification<Product> spec = priceAndExpiry(filter);
+        if (filter.categoryIds() != null && !filter.categoryIds().isEmpty()) {
+            spec = spec.and(inCategories(filter.categoryIds()));
+        }
+        return spec;
+    }
+
+    public static Specification<Product> priceAtLeast(double min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), min);
+    }
+
+    public static Specification<Product> priceAtMost(double max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), max);
+    }
+
+    public static Specification<Product> expiresFrom(Date from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expiryDate"), from);
+    }
+
+    public static Specification<Product> expiresBefore(Date before) {
+        return (root, query, cb) -> cb.lessThan(root.get("expiryDate"), before);
+    }
+
+    public static Specification<Product> inCategories(Collection<Long> categoryIds) {
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+}
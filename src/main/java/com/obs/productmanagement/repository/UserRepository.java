@@ -3,13 +3,15 @@ package com.obs.productmanagement.repository;
 import com.obs.productmanagement.model.User;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Long> {
-    User findByEmailAndPassword(String email, String password);
-    User findByNameAndPassword(String name, String password);
     boolean existsByEmail(String email);
 
+    // name n'est pas unique : deux lignes suffisent pour détecter un homonyme
+    List<User> findTop2ByName(String name);
+
     Optional<User> findByEmail(String email);
 }
@@ -40,14 +40,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String token = authHeader.substring(7);
-        String email = null;
-        Long userId = null;
-        String name = null;
+        UserPrincipal principal;
 
         try {
-            email = jwtService.extractSubject(token);
-            userId = jwtService.extractUserId(token);
-            name = jwtService.extractUserName(token);
+            // Un seul parse + vérification de signature pour toute la requête
+            principal = jwtService.extractPrincipal(token);
         } catch (Exception e) {
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
             response.setContentType("application/json");
@@ -63,22 +60,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
         // Si déjà authentifié, on ne refait pas le travail
-        if (email != null && name != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserPrincipal principal = new UserPrincipal(userId, email, name);
-            if (jwtService.isTokenValid(token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                principal,          // principal (email, userId, name)
-                                null,             // pas de credentials
-                                Collections.emptyList() // pas de rôles pour l’instant
-                        );
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            principal,          // principal (email, userId, name)
+                            null,             // pas de credentials
+                            Collections.emptyList() // pas de rôles pour l’instant
+                    );
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
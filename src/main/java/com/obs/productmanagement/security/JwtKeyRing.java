@@ -0,0 +1,250 @@
+package com.obs.productmanagement.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Trousseau de clés HMAC partagé entre les instances via un keystore PKCS12 sur disque.
+ * <p>
+ * Chaque clé a un identifiant (kid) de la forme {@code <création epoch ms>-<aléa>} mis dans
+ * l'en-tête des JWT. La clé la plus récente signe ; les précédentes restent valides pour
+ * la vérification pendant {@code overlap} après l'arrivée de leur remplaçante, ce qui doit
+ * couvrir la durée de vie d'un token (24h).
+ * <p>
+ * Pas de mot de passe de keystore par défaut : sans {@code security.jwt.keystore.password}
+ * (JWT_KEYSTORE_PASSWORD), l'application refuse de démarrer.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // évite de relire le fichier à chaque token signé avec un kid inconnu
+    private static final long MIN_RELOAD_INTERVAL_MS = 5_000;
+
+    public record SigningKey(String kid, SecretKey key) {}
+
+    private record State(Map<String, SecretKey> keys, SigningKey active) {}
+
+    private final Path keystorePath;
+    private final char[] password;
+    private final Duration rotationInterval;
+    private final Duration overlap;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state;
+    private final AtomicLong lastReloadMillis = new AtomicLong();
+
+    @Autowired
+    public JwtKeyRing(
+            @Value("${security.jwt.keystore.path:keys/jwt-keystore.p12}") Path keystorePath,
+            @Value("${security.jwt.keystore.password:}") String password,
+            @Value("${security.jwt.rotation.interval:P7D}") Duration rotationInterval,
+            @Value("${security.jwt.rotation.overlap:P2D}") Duration overlap
+    ) {
+        this(keystorePath, password, rotationInterval, overlap, Clock.systemUTC());
+    }
+
+    public JwtKeyRing(Path keystorePath, String password, Duration rotationInterval, Duration overlap, Clock clock) {
+        if (password == null || password.isBlank()) {
+            throw new IllegalStateException("No JWT keystore password configured: set security.jwt.keystore.password (JWT_KEYSTORE_PASSWORD)");
+        }
+        this.keystorePath = keystorePath;
+        this.password = password.toCharArray();
+        this.rotationInterval = rotationInterval;
+        this.overlap = overlap;
+        this.clock = clock;
+        rotateIfNeeded();
+    }
+
+    public SigningKey signingKey() {
+        return state.active();
+    }
+
+    /**
+     * Clé de vérification pour un kid donné. Un kid inconnu peut venir d'une autre instance
+     * qui vient de tourner ses clés : on relit alors le keystore (au plus toutes les 5 s).
+     * Le thread qui gagne le CAS sur la date de relecture est le seul à relire ; les autres
+     * répondent avec les clés déjà chargées.
+     */
+    public SecretKey verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        SecretKey key = state.keys().get(kid);
+        if (key == null) {
+            long last = lastReloadMillis.get();
+            long now = clock.millis();
+            if (now - last >= MIN_RELOAD_INTERVAL_MS && lastReloadMillis.compareAndSet(last, now)) {
+                withFileLock(() -> state = toState(load()));
+                key = state.keys().get(kid);
+            }
+        }
+        return key;
+    }
+
+    public Set<String> keyIds() {
+        return state.keys().keySet();
+    }
+
+    /**
+     * Relit le keystore (une autre instance a pu tourner), génère une nouvelle clé si l'active
+     * a dépassé l'intervalle de rotation et retire celles dont la période de chevauchement est finie.
+     */
+    @Scheduled(
+            initialDelayString = "${security.jwt.rotation.check-interval:PT10M}",
+            fixedDelayString = "${security.jwt.rotation.check-interval:PT10M}"
+    )
+    public void rotateIfNeeded() {
+        withFileLock(() -> {
+            TreeMap<String, SecretKey> keys = load();
+            long now = clock.millis();
+            boolean changed = false;
+
+            if (keys.isEmpty() || now - createdAt(keys.lastKey()) >= rotationInterval.toMillis()) {
+                String kid = newKid(now);
+                keys.put(kid, generateKey());
+                log.info("JWT signing key rotated, new kid={}", kid);
+                changed = true;
+            }
+
+            changed |= retireExpiredKeys(keys, now);
+
+            if (changed) {
+                save(keys);
+            }
+            state = toState(keys);
+        });
+    }
+
+    // Une clé remplacée reste acceptée pendant "overlap" après la création de sa remplaçante
+    private boolean retireExpiredKeys(TreeMap<String, SecretKey> keys, long now) {
+        boolean removed = false;
+        List<String> kids = new ArrayList<>(keys.keySet());
+        for (int i = 0; i < kids.size() - 1; i++) {
+            long replacedAt = createdAt(kids.get(i + 1));
+            if (now - replacedAt >= overlap.toMillis()) {
+                keys.remove(kids.get(i));
+                log.info("JWT signing key retired, kid={}", kids.get(i));
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private State toState(TreeMap<String, SecretKey> keys) {
+        lastReloadMillis.set(clock.millis());
+        Map.Entry<String, SecretKey> newest = keys.lastEntry();
+        return new State(Map.copyOf(keys), new SigningKey(newest.getKey(), newest.getValue()));
+    }
+
+    // Trié par kid, donc par date de création (préfixe numérique de largeur fixe)
+    private TreeMap<String, SecretKey> load() {
+        TreeMap<String, SecretKey> keys = new TreeMap<>();
+        if (!Files.exists(keystorePath)) {
+            return keys;
+        }
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (keyStore.getEntry(alias, protection) instanceof KeyStore.SecretKeyEntry entry) {
+                    keys.put(alias, entry.getSecretKey());
+                }
+            }
+            return keys;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT keystore " + keystorePath, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read JWT keystore " + keystorePath, e);
+        }
+    }
+
+    // Écriture dans un fichier temporaire puis move atomique : un lecteur ne voit jamais un fichier partiel
+    private void save(Map<String, SecretKey> keys) {
+        try {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(null, password);
+            KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+            for (Map.Entry<String, SecretKey> e : keys.entrySet()) {
+                keyStore.setEntry(e.getKey(), new KeyStore.SecretKeyEntry(e.getValue()), protection);
+            }
+
+            Path tmp = keystorePath.resolveSibling(keystorePath.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                keyStore.store(out, password);
+            }
+            Files.move(tmp, keystorePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write JWT keystore " + keystorePath, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot write JWT keystore " + keystorePath, e);
+        }
+    }
+
+    // Verrou fichier : deux instances ne tournent pas les clés en même temps
+    private void withFileLock(Runnable action) {
+        Path lockFile = keystorePath.resolveSibling(keystorePath.getFileName() + ".lock");
+        lock.lock();
+        try {
+            Path parent = keystorePath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                action.run();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot lock JWT keystore " + keystorePath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SecretKey generateKey() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(HMAC_ALGORITHM);
+            generator.init(256, random);
+            return generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String newKid(long now) {
+        return String.format("%013d-%08x", now, random.nextInt());
+    }
+
+    private static long createdAt(String kid) {
+        return Long.parseLong(kid.substring(0, kid.indexOf('-')));
+    }
+}
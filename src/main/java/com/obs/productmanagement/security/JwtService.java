@@ -1,36 +1,121 @@
 package com.obs.productmanagement.security;
 
+import com.obs.productmanagement.dto.UserPrincipal;
 import com.obs.productmanagement.dto.UserResponse;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
-    private final Key secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+
+    // Construit une seule fois : JwtParser est immuable et thread-safe.
+    // La clé de vérification est choisie d'après le kid de l'en-tête.
+    private final JwtParser parser;
+
+    // Durée d'un parse + vérification de signature (les hits du cache n'y passent pas)
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtService(JwtKeyRing keyRing, VerifiedTokenCache tokenCache) {
+        this(keyRing, tokenCache, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public JwtService(JwtKeyRing keyRing, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.tokenCache = tokenCache;
+        this.verifiedTimer = verificationTimer(meterRegistry, "valid");
+        this.rejectedTimer = verificationTimer(meterRegistry, "invalid");
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(UserResponse user) {
         Date now = new Date();
         // 24h
         long expirationMs = 24 * 60 * 60 * 1000;
         Date expiry = new Date(now.getTime() + expirationMs);
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setSubject(user.email())
                 .claim("userId", user.id())
                 .claim("name", user.name())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(secretKey)
+                .signWith(signingKey.key())
                 .compact();
     }
 
+    /**
+     * Vérifie la signature et l'expiration puis renvoie les claims (un seul parse).
+     * Lève une JwtException (ou IllegalArgumentException) si le token est invalide.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Parse et vérifie le token une fois, puis construit le principal.
+     * Un token déjà vérifié est servi depuis le cache jusqu'à son expiration.
+     * Renvoie null si le token est valide mais qu'il manque un claim utilisateur.
+     */
+    public UserPrincipal extractPrincipal(String token) {
+        UserPrincipal cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parseVerifiedClaims(token);
+
+        String email = claims.getSubject();
+        Long userId = claims.get("userId", Long.class);
+        String name = claims.get("name", String.class);
+
+        if (email == null || userId == null || name == null) {
+            return null;
+        }
+
+        UserPrincipal principal = new UserPrincipal(userId, email, name);
+        tokenCache.put(token, principal, claims.getExpiration().getTime());
+        return principal;
+    }
+
     public String extractSubject(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -48,26 +133,25 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = extractAllClaims(token);
+        Claims claims = parseVerifiedClaims(token);
         return resolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     // --------- Validation ---------
 
     public boolean isTokenValid(String token) {
         try {
-            extractAllClaims(token); // lève une exception si invalide/expiré
+            parseVerifiedClaims(token); // lève une exception si invalide/expiré
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    private static Timer verificationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("security.jwt.verification")
+                .description("JWT parse and signature verification, cache misses only")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
 }
@@ -0,0 +1,34 @@
+package com.obs.productmanagement.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Vérifie les mots de passe stockés en clair avant le passage à bcrypt (lignes sans préfixe {id}).
+ * Ne sert qu'à la comparaison : DelegatingPasswordEncoder re-hache la ligne après une connexion réussie.
+ */
+class LegacyPlaintextPasswordEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        throw new UnsupportedOperationException("Plaintext passwords are only accepted for legacy rows");
+    }
+
+    // Comparaison en temps constant
+    @Override
+    public boolean matches(CharSequence rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String storedPassword) {
+        return true;
+    }
+}
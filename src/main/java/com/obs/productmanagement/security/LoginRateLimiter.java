@@ -0,0 +1,120 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite les tentatives de connexion par login et par adresse IP, avant toute vérification bcrypt.
+ * <p>
+ * Seau à jetons sous forme GCRA : chaque clé ne garde qu'un instant théorique d'arrivée (TAT)
+ * dans un AtomicLong, mis à jour par compare-and-set, sans verrou. Une tentative passe si
+ * TAT - (capacité - 1) × intervalle &lt;= maintenant ; le TAT avance alors d'un intervalle.
+ * Une clé dont le TAT est passé équivaut à un seau plein : elle est retirée par la purge.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final class Bucket {
+        private final ConcurrentHashMap<String, AtomicLong> tats = new ConcurrentHashMap<>();
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final LongAdder rejected = new LongAdder();
+        private final String name;
+
+        Bucket(String name, int capacity, Duration refillInterval) {
+            this.name = name;
+            this.intervalNanos = refillInterval.toNanos();
+            this.toleranceNanos = (Math.max(1, capacity) - 1) * intervalNanos;
+        }
+
+        // Renvoie 0 si la tentative passe, sinon l'attente en nanosecondes avant la prochaine
+        long tryAcquire(String key, long now) {
+            AtomicLong tat = tats.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                long allowAt = base - toleranceNanos;
+                if (allowAt > now) {
+                    rejected.increment();
+                    return allowAt - now;
+                }
+                if (tat.compareAndSet(current, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void purge(long now) {
+            tats.values().removeIf(tat -> tat.get() <= now);
+        }
+    }
+
+    private final Bucket perLogin;
+    private final Bucket perIp;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LoginRateLimiter(
+            @Value("${security.login.rate-limit.per-login.capacity:5}") int loginCapacity,
+            @Value("${security.login.rate-limit.per-login.refill-interval:PT12S}") Duration loginRefill,
+            @Value("${security.login.rate-limit.per-ip.capacity:30}") int ipCapacity,
+            @Value("${security.login.rate-limit.per-ip.refill-interval:PT1S}") Duration ipRefill
+    ) {
+        this(loginCapacity, loginRefill, ipCapacity, ipRefill, System::nanoTime);
+    }
+
+    public LoginRateLimiter(int loginCapacity, Duration loginRefill, int ipCapacity, Duration ipRefill,
+                            LongSupplier nanoClock) {
+        this.perLogin = new Bucket("login", loginCapacity, loginRefill);
+        this.perIp = new Bucket("ip", ipCapacity, ipRefill);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Consomme un jeton pour l'IP puis pour le login ; lève LoginThrottledException (429) sinon.
+     * L'IP est contrôlée d'abord : une IP bloquée ne consomme pas les jetons des comptes qu'elle vise.
+     */
+    public void acquire(String login, String clientIp) {
+        long now = nanoClock.getAsLong();
+        check(perIp, clientIp == null ? "unknown" : clientIp, now);
+        check(perLogin, login == null ? "" : login.trim().toLowerCase(Locale.ROOT), now);
+    }
+
+    public long rejectedByLogin() {
+        return perLogin.rejected.sum();
+    }
+
+    public long rejectedByIp() {
+        return perIp.rejected.sum();
+    }
+
+    public int trackedKeys() {
+        return perLogin.tats.size() + perIp.tats.size();
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.rate-limit.purge-interval:PT1M}")
+    public void purge() {
+        long now = nanoClock.getAsLong();
+        perLogin.purge(now);
+        perIp.purge(now);
+    }
+
+    private static void check(Bucket bucket, String key, long now) {
+        long waitNanos = bucket.tryAcquire(key, now);
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new LoginThrottledException("per " + bucket.name + " limit", seconds);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.exception.LoginThrottledException;
+import com.obs.productmanagement.exception.SignupThrottledException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hachage et vérification bcrypt sur un pool dédié, borné en threads et en file d'attente.
+ * Un afflux de connexions ne consomme donc jamais plus de `threads` cœurs : au-delà de la file,
+ * la tentative est refusée tout de suite (429) au lieu d'occuper un thread Tomcat pendant des secondes,
+ * et les endpoints de lecture gardent leurs threads.
+ * <p>
+ * Le hachage d'une inscription ne passe pas par ce pool : il est fait sur le thread appelant, dans
+ * sa propre limite de `signup.permits` hachages simultanés. Une vague d'inscriptions ne bloque donc
+ * pas les connexions, et inversement.
+ */
+@Component
+public class PasswordVerifier {
+
+    /**
+     * Résultat d'une vérification ; upgradedHash est non null si le hash stocké doit être remplacé
+     * (mot de passe en clair ou coût bcrypt différent).
+     */
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    // Vérifié quand le login est inconnu : même coût bcrypt que pour un mauvais mot de passe,
+    // la durée de la réponse ne révèle pas si le compte existe
+    private final String dummyHash;
+    private final LongAdder rejected = new LongAdder();
+    private final Semaphore signupPermits;
+    private final Duration signupTimeout;
+    private final LongAdder signupRejected = new LongAdder();
+
+    public PasswordVerifier(
+            PasswordEncoder passwordEncoder,
+            @Value("${security.password.verify.threads:0}") int threads,
+            @Value("${security.password.verify.queue-capacity:32}") int queueCapacity,
+            @Value("${security.password.verify.timeout:PT2S}") Duration timeout,
+            @Value("${security.password.signup.permits:0}") int signupPermits,
+            @Value("${security.password.signup.timeout:PT2S}") Duration signupTimeout
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.signupPermits = new Semaphore(signupPermits > 0 ? signupPermits : Runtime.getRuntime().availableProcessors());
+        this.signupTimeout = signupTimeout;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-verify-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    public Verification verify(CharSequence rawPassword, String storedPassword) {
+        return run(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedPassword)) {
+                return new Verification(false, null);
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(storedPassword) ? passwordEncoder.encode(rawPassword) : null;
+            return new Verification(true, upgraded);
+        });
+    }
+
+    // Login inconnu : on paie une vérification pour rien
+    public void verifyUnknown(CharSequence rawPassword) {
+        run(() -> passwordEncoder.matches(rawPassword, dummyHash));
+    }
+
+    // Inscription : hachée sur le thread appelant une fois un permis obtenu, sans toucher au pool des connexions
+    public String hash(CharSequence rawPassword) {
+        boolean acquired;
+        try {
+            acquired = signupPermits.tryAcquire(signupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignupThrottledException(1);
+        }
+        if (!acquired) {
+            signupRejected.increment();
+            throw new SignupThrottledException(1);
+        }
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } finally {
+            signupPermits.release();
+        }
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long signupRejectedCount() {
+        return signupRejected.sum();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    private <T> T run(Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work::get);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginThrottledException("password verification queue full", 1);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new LoginThrottledException("password verification timed out", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("interrupted", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
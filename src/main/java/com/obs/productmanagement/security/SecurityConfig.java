@@ -2,6 +2,10 @@ package com.obs.productmanagement.security;
 
 import com.obs.productmanagement.logging.LoggingMdcFilter;
 import jakarta.servlet.Filter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +17,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,6 +27,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -47,6 +53,9 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
                         .requestMatchers("/api/auth/login").permitAll()
+                        // Sonde de santé et scrape Prometheus, sans jeton : ne correspond qu'aux requêtes
+                        // du port de management (management.server.port), jamais au port public
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .anyRequest().authenticated()
                 )
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
@@ -59,8 +68,34 @@ public class SecurityConfig {
 
     // Password encoder pour UserServiceImpl (hash des mots de passe)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        return createPasswordEncoder(bcryptStrength);
+    }
+
+    /**
+     * Nouveaux hash en {bcrypt} au coût donné. Les valeurs sans préfixe sont d'anciens mots de passe
+     * en clair : acceptés à la vérification, et upgradeEncoding() demande alors un re-hachage,
+     * comme pour un hash bcrypt d'un coût différent de celui configuré.
+     */
+    public static PasswordEncoder createPasswordEncoder(int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return super.upgradeEncoding(encodedPassword) || strengthOf(encodedPassword) != bcryptStrength;
+            }
+        };
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(new LegacyPlaintextPasswordEncoder());
+        return encoder;
+    }
+
+    // $2a$10$... : le coût suit la version
+    private static int strengthOf(String bcryptHash) {
+        try {
+            return Integer.parseInt(bcryptHash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
     }
 
     // Si plus tard tu utilises AuthenticationManager, tu l’exposes ici
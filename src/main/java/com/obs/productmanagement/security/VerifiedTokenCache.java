@@ -0,0 +1,72 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.cache.BoundedExpiringCache;
+import com.obs.productmanagement.dto.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Principals déjà vérifiés, indexés par le SHA-256 du token (on ne garde pas les tokens en clair).
+ * Une entrée disparaît à l'expiration (claim exp) du token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // Cloner un MessageDigest évite la recherche de provider (et ses sections synchronisées)
+    // à chaque requête ; l'instance prototype n'est jamais utilisée directement.
+    private static final MessageDigest SHA_256 = sha256();
+
+    private final BoundedExpiringCache<String, UserPrincipal> cache;
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-size:10000}") int maxSize) {
+        this.cache = new BoundedExpiringCache<>(maxSize);
+    }
+
+    public UserPrincipal get(String token) {
+        return cache.get(hash(token));
+    }
+
+    public void put(String token, UserPrincipal principal, long expiresAtMillis) {
+        cache.put(hash(token), principal, expiresAtMillis);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            digest = sha256();
+        }
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 est garanti par toutes les JVM
+            throw new IllegalStateException(e);
+        }
+    }
+}
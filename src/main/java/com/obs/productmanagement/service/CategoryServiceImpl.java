@@ -1,10 +1,14 @@
 package com.obs.productmanagement.service;
 
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
 import com.obs.productmanagement.dto.CategoryRequest;
 import com.obs.productmanagement.dto.CategoryResponse;
 import com.obs.productmanagement.dto.mapper.CategoryMapper;
 import com.obs.productmanagement.exception.CategoryAlreadyExistsException;
 import com.obs.productmanagement.exception.CategoryNotFoundException;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
 import com.obs.productmanagement.model.Category;
 import com.obs.productmanagement.repository.CategoryRepository;
 import lombok.AllArgsConstructor;
@@ -17,14 +21,18 @@ import java.util.List;
 public class CategoryServiceImpl implements ICategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCache categoryCache;
+    private final MostExpensiveIndex mostExpensiveIndex;
+    private final CatalogVersions catalogVersions;
+    private final ProductSearchIndex productSearchIndex;
 
 
     @Override
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findAll()
+        return categoryCache.getAll(() -> categoryRepository.findAll()
                 .stream()
                 .map(categoryMapper::toResponse)
-                .toList();
+                .toList());
     }
 
     @Override
@@ -43,6 +51,8 @@ public class CategoryServiceImpl implements ICategoryService {
 
         Category category = categoryMapper.toEntity(request);
         Category saved = categoryRepository.save(category);
+        categoryCache.evictSnapshot();
+        catalogVersions.categoryAdded();
 
         return categoryMapper.toResponse(saved);
     }
@@ -56,6 +66,10 @@ public class CategoryServiceImpl implements ICategoryService {
         existing.setDescription(request.description());
 
         Category updated = categoryRepository.save(existing);
+        categoryCache.evict(id);
+        // Index d'abord, version ensuite : un ETag neuf ne peut plus désigner l'ancien nom
+        mostExpensiveIndex.renameCategory(id, updated.getName());
+        catalogVersions.categoryChanged(id);
 
         return categoryMapper.toResponse(updated);
     }
@@ -67,5 +81,9 @@ public class CategoryServiceImpl implements ICategoryService {
         }
 
         categoryRepository.deleteById(id);
+        categoryCache.evict(id);
+        mostExpensiveIndex.removeCategory(id);
+        productSearchIndex.removeCategory(id);
+        catalogVersions.categoryChanged(id);
     }
 }
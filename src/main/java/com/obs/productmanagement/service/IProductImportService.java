@@ -0,0 +1,11 @@
+package com.obs.productmanagement.service;
+
+import com.obs.productmanagement.dto.ProductImportResult;
+
+import java.io.InputStream;
+
+public interface IProductImportService {
+    ProductImportResult importJson(InputStream json);
+
+    ProductImportResult importCsv(InputStream csv);
+}
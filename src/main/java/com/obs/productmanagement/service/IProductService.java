@@ -1,10 +1,14 @@
 package com.obs.productmanagement.service;
 
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductPageResponse;
 import com.obs.productmanagement.dto.ProductRequest;
 import com.obs.productmanagement.dto.ProductResponse;
 import com.obs.productmanagement.model.Product;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IProductService {
     List<ProductResponse> getAllProducts();
@@ -22,4 +26,16 @@ public interface IProductService {
     List<ProductResponse> getProductsByCategory(Long categoryId);
 
     List<ProductResponse> getMostExpensiveProductsByCategory(Long categoryId);
+
+    List<ProductResponse> getTopProductsByPrice(int limit);
+
+    List<ProductResponse> getTopProductsByPriceInCategory(Long categoryId, int limit);
+
+    List<ProductResponse> searchProducts(String query, int limit);
+
+    ProductFilterResponse filterProducts(ProductFilter filter, int limit);
+
+    ProductPageResponse getProductsPage(String cursor, int size, String sort);
+
+    void streamAllProducts(Consumer<ProductResponse> consumer);
 }
@@ -0,0 +1,269 @@
+package com.obs.productmanagement.service;
+
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.dto.ProductImportError;
+import com.obs.productmanagement.dto.ProductImportResult;
+import com.obs.productmanagement.dto.ProductRequest;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.exception.CategoryNotFoundException;
+import com.obs.productmanagement.exception.ProductAlreadyExistsException;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import com.obs.productmanagement.repository.CategoryRepository;
+import com.obs.productmanagement.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de produits, lu en flux (tableau JSON ou CSV avec en-tête) et traité par lots :
+ * validation, une requête pour les catégories inconnues du lot, une requête pour les noms
+ * déjà pris, puis un saveAll par lot (une transaction par lot) : les ids viennent du générateur
+ * table par blocs, Hibernate envoie donc les INSERT en batch JDBC (hibernate.jdbc.batch_size).
+ * Une ligne invalide est rejetée et signalée sans interrompre le reste du chargement.
+ * <p>
+ * Chaque lot commité est ajouté aux index en mémoire produit par produit, comme une création
+ * unitaire : l'import ne déclenche pas de reconstruction complète.
+ */
+@Service
+public class ProductImportServiceImpl implements IProductImportService {
+
+    private record Row(int number, ProductRequest request) {}
+
+    // État d'un chargement : catégories déjà résolues (id -> nom), noms déjà vus, compteurs
+    private final class Run {
+        private final Map<Long, String> categoryNames = new HashMap<>();
+        private final Set<Long> missingCategoryIds = new HashSet<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int rejected;
+
+        void reject(int row, String name, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(row, name, message));
+            }
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CategoryCache categoryCache;
+    private final MostExpensiveIndex mostExpensiveIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogVersions catalogVersions;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ProductImportServiceImpl(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            CategoryCache categoryCache,
+            MostExpensiveIndex mostExpensiveIndex,
+            ProductSearchIndex productSearchIndex,
+            CatalogVersions catalogVersions,
+            @Value("${import.products.chunk-size:1000}") int chunkSize,
+            @Value("${import.products.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.categoryCache = categoryCache;
+        this.mostExpensiveIndex = mostExpensiveIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogVersions = catalogVersions;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ProductImportResult importJson(InputStream json) {
+        return importRows(() -> objectMapper.readerFor(ProductRequest.class).readValues(json));
+    }
+
+    @Override
+    public ProductImportResult importCsv(InputStream csv) {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        return importRows(() -> csvMapper.readerFor(ProductRequest.class).with(schema).readValues(csv));
+    }
+
+    private interface RowSource {
+        MappingIterator<ProductRequest> open() throws IOException;
+    }
+
+    private ProductImportResult importRows(RowSource source) {
+        Run run = new Run();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<ProductRequest> rows = source.open()) {
+            while (rows.hasNextValue()) {
+                int number = ++run.received;
+                ProductRequest request;
+                try {
+                    request = rows.nextValue();
+                } catch (DatabindException e) {
+                    // Valeur du mauvais type : la ligne est sautée, l'itérateur se resynchronise
+                    run.reject(number, null, "Unreadable row: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (request == null) {
+                    run.reject(number, null, "Empty row");
+                    continue;
+                }
+                chunk.add(new Row(number, request));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Syntaxe invalide : impossible de continuer, les lots déjà traités restent importés
+            run.reject(run.received, null, "Malformed input, import stopped: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, run);
+        }
+
+        // Index déjà à jour lot par lot : la version change en dernier
+        if (run.imported > 0) {
+            categoryCache.evictSnapshot();
+            catalogVersions.productChanged(null);
+        }
+        return new ProductImportResult(run.received, run.imported, run.rejected, List.copyOf(run.errors));
+    }
+
+    private void processChunk(List<Row> chunk, Run run) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            ProductRequest request = row.request();
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                run.reject(row.number(), request.name(), violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!run.seenNames.add(request.name())) {
+                run.reject(row.number(), request.name(), "Duplicate name in import");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        resolveCategories(valid, run);
+        Set<String> existingNames = productRepository.findExistingNames(
+                valid.stream().map(row -> row.request().name()).toList());
+
+        List<Row> insertable = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            ProductRequest request = row.request();
+            if (run.missingCategoryIds.contains(request.categoryId())) {
+                run.reject(row.number(), request.name(), new CategoryNotFoundException(request.categoryId()).getMessage());
+            } else if (existingNames.contains(request.name())) {
+                run.reject(row.number(), request.name(), new ProductAlreadyExistsException(request.name()).getMessage());
+            } else {
+                insertable.add(row);
+            }
+        }
+        insert(insertable, run);
+    }
+
+    // Seules les catégories pas encore vues pendant ce chargement sont cherchées en base
+    private void resolveCategories(List<Row> rows, Run run) {
+        Set<Long> unknown = rows.stream()
+                .map(row -> row.request().categoryId())
+                .filter(id -> !run.categoryNames.containsKey(id) && !run.missingCategoryIds.contains(id))
+                .collect(Collectors.toSet());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        // Le nom sert aux réponses gardées par MostExpensiveIndex
+        categoryRepository.findAllById(unknown).forEach(category -> run.categoryNames.put(category.getId(), category.getName()));
+        unknown.removeAll(run.categoryNames.keySet());
+        run.missingCategoryIds.addAll(unknown);
+    }
+
+    private void insert(List<Row> rows, Run run) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            List<Product> saved = transactionTemplate.execute(status ->
+                    productRepository.saveAllAndFlush(rows.stream().map(this::toEntity).toList()));
+            run.imported += rows.size();
+            saved.forEach(product -> index(product, run));
+        } catch (DataIntegrityViolationException e) {
+            // Écriture concurrente entre la vérification et l'insert : on rejoue le lot ligne par ligne
+            for (Row row : rows) {
+                try {
+                    Product saved = transactionTemplate.execute(status -> productRepository.saveAndFlush(toEntity(row)));
+                    run.imported++;
+                    index(saved, run);
+                } catch (DataIntegrityViolationException rowError) {
+                    run.reject(row.number(), row.request().name(),
+                            "Rejected by database constraint (name already taken or category deleted)");
+                }
+            }
+        } finally {
+            // Sous open-in-view le contexte de persistance vit toute la requête : on ne garde pas les lots traités
+            entityManager.clear();
+        }
+    }
+
+    // Après le commit, comme ProductServiceImpl.createProduct ; la catégorie reste une référence non chargée
+    private void index(Product product, Run run) {
+        Long categoryId = product.getCategory().getId();
+        ProductResponse response = new ProductResponse(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getExpiryDate(), run.categoryNames.get(categoryId));
+        mostExpensiveIndex.put(categoryId, response);
+        productSearchIndex.put(categoryId, response);
+    }
+
+    // La catégorie a déjà été vérifiée : une référence suffit, sans SELECT
+    private Product toEntity(Row row) {
+        ProductRequest request = row.request();
+        return new Product(
+                null,
+                request.name(),
+                request.price(),
+                request.description(),
+                request.expiryDate(),
+                entityManager.getReference(Category.class, request.categoryId())
+        );
+    }
+}
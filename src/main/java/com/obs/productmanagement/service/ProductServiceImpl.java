@@ -1,19 +1,37 @@
 package com.obs.productmanagement.service;
 
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.dto.CategoryFacet;
+import com.obs.productmanagement.dto.ProductCursor;
+import com.obs.productmanagement.dto.ProductCursor.ProductSort;
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductPageResponse;
 import com.obs.productmanagement.dto.ProductRequest;
 import com.obs.productmanagement.dto.ProductResponse;
 import com.obs.productmanagement.dto.mapper.ProductMapper;
 import com.obs.productmanagement.exception.CategoryNotFoundException;
+import com.obs.productmanagement.exception.InvalidCursorException;
+import com.obs.productmanagement.exception.InvalidFilterException;
 import com.obs.productmanagement.exception.ProductAlreadyExistsException;
 import com.obs.productmanagement.exception.ProductNotFoundException;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
 import com.obs.productmanagement.model.Category;
 import com.obs.productmanagement.model.Product;
 import com.obs.productmanagement.repository.CategoryRepository;
 import com.obs.productmanagement.repository.ProductRepository;
+import com.obs.productmanagement.repository.ProductSpecifications;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -21,21 +39,21 @@ public class ProductServiceImpl implements IProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
+    private final CategoryCache categoryCache;
+    private final MostExpensiveIndex mostExpensiveIndex;
+    private final CatalogVersions catalogVersions;
+    private final ProductSearchIndex productSearchIndex;
 
 
     @Override
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(productMapper::toResponse)
-                .toList();
+        return productRepository.findAllResponses();
     }
 
     @Override
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productRepository.findResponseById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
-        return productMapper.toResponse(product);
     }
 
     @Override
@@ -46,11 +64,18 @@ public class ProductServiceImpl implements IProductService {
 
         Product product = productMapper.toEntity(request);
 
-        Category category = categoryRepository.findById(request.categoryId())
+        Category category = categoryCache.findById(request.categoryId(), categoryRepository::findById)
                 .orElseThrow(() -> new CategoryNotFoundException(request.categoryId()));
         product.setCategory(category);
         productRepository.save(product);
-        return productMapper.toResponse(product);
+        categoryCache.evictSnapshot();
+
+        // Index d'abord, version ensuite : un ETag neuf ne peut plus désigner des données anciennes
+        ProductResponse response = productMapper.toResponse(product);
+        mostExpensiveIndex.put(category.getId(), response);
+        productSearchIndex.put(category.getId(), response);
+        catalogVersions.productChanged(category.getId());
+        return response;
     }
 
     @Override
@@ -59,6 +84,8 @@ public class ProductServiceImpl implements IProductService {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
 
+        Long previousCategoryId = existing.getCategory() != null ? existing.getCategory().getId() : null;
+
         // Mettre à jour les champs simples
         existing.setName(request.name());
         existing.setDescription(request.description());
@@ -67,14 +94,22 @@ public class ProductServiceImpl implements IProductService {
 
         // Mettre à jour la catégorie si besoin
         if (request.categoryId() != null) {
-            Category category = categoryRepository.findById(request.categoryId())
+            Category category = categoryCache.findById(request.categoryId(), categoryRepository::findById)
                     .orElseThrow(() -> new CategoryNotFoundException(request.categoryId()));
             existing.setCategory(category);
         }
 
         Product updated = productRepository.save(existing);
+        categoryCache.evictSnapshot();
 
-        return productMapper.toResponse(updated);
+        ProductResponse response = productMapper.toResponse(updated);
+        mostExpensiveIndex.put(updated.getCategory().getId(), response);
+        productSearchIndex.put(updated.getCategory().getId(), response);
+        catalogVersions.productChanged(updated.getCategory().getId());
+        if (previousCategoryId != null && !previousCategoryId.equals(updated.getCategory().getId())) {
+            catalogVersions.productChanged(previousCategoryId);
+        }
+        return response;
     }
 
     @Override
@@ -84,37 +119,138 @@ public class ProductServiceImpl implements IProductService {
         }
 
         productRepository.deleteById(id);
+        categoryCache.evictSnapshot();
+        mostExpensiveIndex.remove(id);
+        productSearchIndex.remove(id);
+        // Catégorie non chargée par existsById : toutes les listes par catégorie sont invalidées
+        catalogVersions.productChanged(null);
     }
 
     @Override
     public List<ProductResponse> getMostExpensiveProducts() {
-        return productRepository.findMostExpensiveProducts()
-                .stream()
-                .map(productMapper::toResponse)
-                .toList();
+        return mostExpensiveIndex.mostExpensive()
+                .orElseGet(productRepository::findMostExpensiveProducts);
     }
 
     @Override
     public List<ProductResponse> getProductsByCategory(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
+        if (categoryCache.findById(categoryId, categoryRepository::findById).isEmpty()) {
             throw new CategoryNotFoundException(categoryId);
         }
 
-        return productRepository.findByCategoryId(categoryId)
-                .stream()
-                .map(productMapper::toResponse)
-                .toList();
+        return productRepository.findByCategoryId(categoryId);
     }
 
     @Override
     public List<ProductResponse> getMostExpensiveProductsByCategory(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
+        if (categoryCache.findById(categoryId, categoryRepository::findById).isEmpty()) {
             throw new CategoryNotFoundException(categoryId);
         }
 
-        return productRepository.findMostExpensiveProductsByCategoryId(categoryId)
-                .stream()
-                .map(productMapper::toResponse)
-                .toList();
+        return mostExpensiveIndex.mostExpensive(categoryId)
+                .orElseGet(() -> productRepository.findMostExpensiveProductsByCategoryId(categoryId));
+    }
+
+    @Override
+    public List<ProductResponse> getTopProductsByPrice(int limit) {
+        return mostExpensiveIndex.top(limit)
+                .orElseGet(() -> productRepository.findTopByPrice(Limit.of(limit)));
+    }
+
+    @Override
+    public List<ProductResponse> getTopProductsByPriceInCategory(Long categoryId, int limit) {
+        if (categoryCache.findById(categoryId, categoryRepository::findById).isEmpty()) {
+            throw new CategoryNotFoundException(categoryId);
+        }
+
+        return mostExpensiveIndex.top(categoryId, limit)
+                .orElseGet(() -> productRepository.findTopByPriceInCategory(categoryId, Limit.of(limit)));
+    }
+
+    @Override
+    public List<ProductResponse> searchProducts(String query, int limit) {
+        return productSearchIndex.search(query, limit)
+                .orElseGet(() -> productRepository.searchByText(query.strip(), Limit.of(limit)));
+    }
+
+    @Override
+    public ProductFilterResponse filterProducts(ProductFilter filter, int limit) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice()) {
+            throw new InvalidFilterException("minPrice must be <= maxPrice");
+        }
+        if (filter.expiresFrom() != null && filter.expiresBefore() != null
+                && !filter.expiresFrom().before(filter.expiresBefore())) {
+            throw new InvalidFilterException("expiresFrom must be before expiresBefore");
+        }
+
+        // Facettes sans le critère de catégorie : le client voit aussi les catégories qu'il n'a pas choisies
+        List<CategoryFacet> facets = productRepository.countByCategory(ProductSpecifications.priceAndExpiry(filter));
+        List<Long> selected = filter.categoryIds() == null ? List.of() : filter.categoryIds();
+        long total = facets.stream()
+                .filter(facet -> selected.isEmpty() || selected.contains(facet.categoryId()))
+                .mapToLong(CategoryFacet::count)
+                .sum();
+
+        // Le total vient des facettes : pas de COUNT séparé, ni de seconde requête quand rien ne correspond
+        List<ProductResponse> items = (total == 0)
+                ? List.of()
+                : productRepository.findFiltered(ProductSpecifications.matching(filter), Limit.of(limit));
+        return new ProductFilterResponse(items, total, facets);
+    }
+
+    @Override
+    public ProductPageResponse getProductsPage(String cursor, int size, String sort) {
+        ProductCursor after = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor);
+        ProductSort requested = ProductSort.from(sort);
+
+        if (after != null && sort != null && after.sort() != requested) {
+            throw new InvalidCursorException("Cursor was issued for sort '" + after.sort().name().toLowerCase() + "'");
+        }
+        ProductSort effective = (after != null) ? after.sort() : requested;
+
+        // On demande une ligne de plus pour savoir s'il reste une page
+        Limit limit = Limit.of(size + 1);
+        List<ProductResponse> rows;
+        if (effective == ProductSort.PRICE) {
+            rows = pageOrderByPrice(after, limit);
+        } else {
+            rows = productRepository.findPageOrderById(after == null ? 0L : after.lastId(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<ProductResponse> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductResponse last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(effective, last.price(), last.id()).encode();
+        }
+
+        return new ProductPageResponse(List.copyOf(page), nextCursor);
+    }
+
+    // Prix croissant puis, en fin de parcours, les produits sans prix par id
+    private List<ProductResponse> pageOrderByPrice(ProductCursor after, Limit limit) {
+        if (after != null && after.lastPrice() == null) {
+            return productRepository.findUnpricedPageOrderById(after.lastId(), limit);
+        }
+        List<ProductResponse> priced = (after == null)
+                ? productRepository.findFirstPageOrderByPrice(limit)
+                : productRepository.findPageOrderByPrice(after.lastPrice(), after.lastId(), limit);
+        if (priced.size() == limit.max()) {
+            return priced;
+        }
+        // Fin des prix atteinte dans cette page : on la complète avec le début du groupe sans prix
+        List<ProductResponse> rows = new ArrayList<>(priced);
+        rows.addAll(productRepository.findUnpricedPageOrderById(0L, Limit.of(limit.max() - priced.size())));
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductResponse> consumer) {
+        try (Stream<ProductResponse> products = productRepository.streamAll()) {
+            products.forEach(consumer);
+        }
     }
 }
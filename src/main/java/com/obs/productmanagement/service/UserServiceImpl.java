@@ -3,20 +3,26 @@ package com.obs.productmanagement.service;
 import com.obs.productmanagement.dto.UserCreateRequest;
 import com.obs.productmanagement.dto.UserResponse;
 import com.obs.productmanagement.dto.mapper.UserMapper;
+import com.obs.productmanagement.exception.InvalidCredentialsException;
 import com.obs.productmanagement.exception.UserAlreadyExistsException;
 import com.obs.productmanagement.exception.UserNotFoundException;
 import com.obs.productmanagement.model.User;
 import com.obs.productmanagement.repository.UserRepository;
+import com.obs.productmanagement.security.PasswordVerifier;
 import com.obs.productmanagement.security.SecurityUtils;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements IUserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-
+    // bcrypt borné : pool dédié pour les connexions, permis séparés pour les inscriptions (429 au-delà)
+    private final PasswordVerifier passwordVerifier;
 
     @Override
     public UserResponse createUser(UserCreateRequest request) {
@@ -25,6 +31,7 @@ public class UserServiceImpl implements IUserService {
         }
 
         User user = userMapper.toEntity(request);
+        user.setPassword(passwordVerifier.hash(request.password()));
         User saved = userRepository.save(user);
 
         return userMapper.toResponse(saved);
@@ -40,19 +47,33 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     public UserResponse getUserByNameOrEmailAndPassword(String login, String password) {
-        User user = null;
-
-        if (login.contains("@")) {
-            user = userRepository.findByEmailAndPassword(login, password);
-        } else {
-            user = userRepository.findByNameAndPassword(login, password);
+        // Un login avec "@" est d'abord cherché comme email, puis comme nom (un nom peut contenir "@")
+        Optional<User> candidate = login.contains("@")
+                ? userRepository.findByEmail(login).or(() -> uniqueByName(login))
+                : uniqueByName(login);
+
+        if (candidate.isEmpty()) {
+            passwordVerifier.verifyUnknown(password);
+            throw new InvalidCredentialsException();
         }
 
-        if (user != null) {
-            return userMapper.toResponse(user);
-        }else {
-            throw new UserNotFoundException(login, password);
+        User user = candidate.get();
+        PasswordVerifier.Verification verification = passwordVerifier.verify(password, user.getPassword());
+        if (!verification.matches()) {
+            throw new InvalidCredentialsException();
+        }
+        // Ancien mot de passe en clair ou coût bcrypt modifié : on re-hache tant qu'on a le mot de passe
+        if (verification.upgradedHash() != null) {
+            user.setPassword(verification.upgradedHash());
+            userRepository.save(user);
         }
+        return userMapper.toResponse(user);
+    }
+
+    // Un nom porté par plusieurs comptes ne permet pas de choisir : connexion par email uniquement
+    private Optional<User> uniqueByName(String name) {
+        List<User> users = userRepository.findTop2ByName(name);
+        return users.size() == 1 ? Optional.of(users.get(0)) : Optional.empty();
     }
 
     @Override
@@ -0,0 +1,61 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connexion par email ou nom : email devient unique (donc indexé), name est indexé.
+ * La contrainte d'unicité sur age, sans raison métier, est supprimée.
+ * <p>
+ * Migration Java et non SQL : sur les bases créées avant Flyway (baseline V1), la contrainte
+ * sur age porte le nom généré par Hibernate et non uk_users_age ; on la retrouve donc
+ * dans information_schema (même requête sur MySQL et H2).
+ */
+public class V4__users_login_indexes extends BaseJavaMigration {
+
+    private static final String AGE_UNIQUE_CONSTRAINTS = """
+            SELECT tc.constraint_name
+            FROM information_schema.table_constraints tc
+            JOIN information_schema.key_column_usage k
+              ON k.constraint_name = tc.constraint_name
+             AND k.table_schema = tc.table_schema
+             AND k.table_name = tc.table_name
+            WHERE LOWER(tc.table_name) = 'users'
+              AND tc.table_schema = ?
+              AND tc.constraint_type = 'UNIQUE'
+            GROUP BY tc.constraint_name
+            HAVING COUNT(*) = 1 AND MAX(LOWER(k.column_name)) = 'age'
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // MySQL expose la base comme catalogue, H2 comme schéma
+        String schema = connection.getSchema() != null ? connection.getSchema() : connection.getCatalog();
+
+        List<String> ageConstraints = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(AGE_UNIQUE_CONSTRAINTS)) {
+            query.setString(1, schema);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    ageConstraints.add(rs.getString(1));
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String constraint : ageConstraints) {
+                statement.execute("ALTER TABLE users DROP CONSTRAINT " + constraint);
+            }
+            statement.execute("ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email)");
+            statement.execute("CREATE INDEX idx_users_name ON users (name)");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Schéma tel que créé jusqu'ici par ddl-auto=update (bases existantes : baseline en version 1)
+
+CREATE TABLE category (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_category_name UNIQUE (name)
+);
+
+CREATE TABLE product (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    price       FLOAT(53),
+    description VARCHAR(255),
+    expiry_date DATETIME(6),
+    category_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_name UNIQUE (name),
+    CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id)
+);
+
+CREATE TABLE users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255) NOT NULL,
+    age      INTEGER      NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_age UNIQUE (age)
+);
@@ -0,0 +1,8 @@
+-- Index pour les requêtes de ProductRepository :
+--  - MAX(price), tri / pagination keyset sur (price, id), top-K par prix décroissant ;
+--  - produits d'une catégorie et MAX(price) par catégorie (préfixe category_id, sert aussi à la FK).
+-- L'id est ajouté explicitement : il départage les prix égaux dans les ORDER BY.
+
+CREATE INDEX idx_product_price ON product (price, id);
+
+CREATE INDEX idx_product_category_price ON product (category_id, price, id);
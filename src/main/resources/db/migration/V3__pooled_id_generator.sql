@@ -0,0 +1,14 @@
+-- Générateur d'ids par blocs (@TableGenerator, allocationSize = 50) pour category, product et users.
+-- Chaque ligne part au-delà des ids existants + une allocation complète, afin que le premier bloc
+-- réservé par Hibernate ne recouvre aucun id déjà attribué par AUTO_INCREMENT.
+-- Les colonnes restent AUTO_INCREMENT mais toute insertion applicative passe désormais par ce générateur.
+
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'category', COALESCE(MAX(id), 0) + 51 FROM category;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'product', COALESCE(MAX(id), 0) + 51 FROM product;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 51 FROM users;
@@ -0,0 +1,8 @@
+-- Index pour le filtrage combiné (GET /api/products/filter) :
+--  - fenêtre sur expiry_date seule ;
+--  - fenêtre sur expiry_date dans une catégorie (les filtres par prix et catégorie ont déjà
+--    idx_product_price et idx_product_category_price, V2).
+
+CREATE INDEX idx_product_expiry_date ON product (expiry_date, id);
+
+CREATE INDEX idx_product_category_expiry_date ON product (category_id, expiry_date, id);
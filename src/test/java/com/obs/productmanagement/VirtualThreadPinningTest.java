@@ -0,0 +1,72 @@
+package com.obs.productmanagement;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Code traversé par chaque requête (filtres JWT et MDC, caches, index, profils en direct) : pas de méthode
+ * synchronized ni de bloc synchronized, qui épingleraient le thread virtuel sur son
+ * thread porteur (profil virtual-threads). Les verrous doivent passer par java.util.concurrent.
+ */
+class VirtualThreadPinningTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"security", "logging", "cache", "index", "analytics"})
+    void requestPathPackages_shouldNotUseMonitors(String pkg) throws Exception {
+        List<String> monitors = new ArrayList<>();
+
+        for (Path classFile : classFiles("com/obs/productmanagement/" + pkg)) {
+            try (InputStream in = Files.newInputStream(classFile)) {
+                new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM9) {
+                    private String className;
+
+                    @Override
+                    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                        className = name;
+                    }
+
+                    @Override
+                    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                        if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                            monitors.add(className + "." + name + " (synchronized method)");
+                        }
+                        return new MethodVisitor(Opcodes.ASM9) {
+                            @Override
+                            public void visitInsn(int opcode) {
+                                if (opcode == Opcodes.MONITORENTER) {
+                                    monitors.add(className + "." + name + " (synchronized block)");
+                                }
+                            }
+                        };
+                    }
+                }, ClassReader.SKIP_DEBUG);
+            }
+        }
+
+        assertThat(monitors).isEmpty();
+    }
+
+    // Classes de production uniquement (target/test-classes a aussi un package security)
+    private static List<Path> classFiles(String packagePath) throws IOException, URISyntaxException {
+        URL root = ProductmanagementApplication.class.getProtectionDomain().getCodeSource().getLocation();
+        try (Stream<Path> files = Files.list(Path.of(root.toURI()).resolve(packagePath))) {
+            return files.filter(f -> f.toString().endsWith(".class")).toList();
+        }
+    }
+}
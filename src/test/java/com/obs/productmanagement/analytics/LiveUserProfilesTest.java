@@ -0,0 +1,121 @@
+package com.obs.productmanagement.analytics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.obs.productmanagement.dto.UserProfileResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LiveUserProfilesTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final LoggerContext context = new LoggerContext();
+    private LiveUserProfiles profiles;
+    private UserEventAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        profiles = new LiveUserProfiles(3, Duration.ofMinutes(30), "com.obs.productmanagement.service", now::get);
+        appender = new UserEventAppender(profiles);
+        appender.setContext(context);
+        appender.start();
+    }
+
+    @Test
+    void appender_shouldCountEvents_fromMdcAndKeyValuePairs() {
+        // WHEN
+        appender.doAppend(event(Map.of("userId", "2", "event", "DB_READ")));
+        appender.doAppend(event(Map.of("userId", "2", "event", "DB_READ")));
+        appender.doAppend(eventWithKeyValue(Map.of("userId", "2"), "DB_WRITE"));
+        appender.doAppend(event(Map.of("event", "DB_READ")));                   // pas d'utilisateur
+        appender.doAppend(event(Map.of("userId", "2")));                        // pas d'événement
+        appender.doAppend(event(Map.of("userId", "abc", "event", "DB_READ")));  // id non numérique
+
+        // THEN
+        UserProfileResponse profile = profiles.profile(2L).orElseThrow();
+        assertThat(profile.counts()).containsExactly(entry("DB_READ", 2L), entry("DB_WRITE", 1L));
+        assertThat(profile.profile()).isEqualTo("DB_READ");
+        assertThat(profile.total()).isEqualTo(3);
+        assertThat(profiles.trackedUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void evictIdle_shouldDropOnlyUsersIdleLongerThanTimeout() {
+        // GIVEN
+        profiles.record(1L, "DB_READ");
+        now.addAndGet(Duration.ofMinutes(20).toMillis());
+        profiles.record(2L, "DB_WRITE");
+
+        // WHEN
+        now.addAndGet(Duration.ofMinutes(15).toMillis());
+        profiles.evictIdle();
+
+        // THEN
+        assertThat(profiles.profile(1L)).isEmpty();
+        assertThat(profiles.profile(2L)).isPresent();
+    }
+
+    @Test
+    void record_shouldStopTrackingNewUsers_atCapacity() {
+        // GIVEN : capacité de 3 utilisateurs
+        for (long id = 1; id <= 3; id++) {
+            profiles.record(id, "DB_READ");
+        }
+
+        // WHEN
+        profiles.record(4L, "DB_READ");
+        profiles.record(1L, "DB_WRITE");
+
+        // THEN : les utilisateurs déjà suivis continuent d'être comptés
+        assertThat(profiles.profile(4L)).isEmpty();
+        assertThat(profiles.profile(1L).orElseThrow().total()).isEqualTo(2);
+        assertThat(profiles.untrackedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void record_shouldNotLoseIncrements_underConcurrency() throws Exception {
+        // GIVEN
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // WHEN
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    profiles.record(42L, i % 2 == 0 ? "DB_READ" : "EVENT_" + thread % 2);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // THEN
+        UserProfileResponse profile = profiles.profile(42L).orElseThrow();
+        assertThat(profile.total()).isEqualTo(80_000);
+        assertThat(profile.counts()).containsEntry("DB_READ", 40_000L).containsEntry("EVENT_0", 20_000L);
+    }
+
+    private LoggingEvent event(Map<String, String> mdc) {
+        LoggingEvent event = new LoggingEvent(getClass().getName(), context.getLogger("test"), Level.INFO, "call", null, null);
+        event.setMDCPropertyMap(new HashMap<>(mdc));
+        return event;
+    }
+
+    private LoggingEvent eventWithKeyValue(Map<String, String> mdc, String eventName) {
+        LoggingEvent event = event(mdc);
+        event.addKeyValuePair(new KeyValuePair("event", eventName));
+        return event;
+    }
+}
@@ -0,0 +1,101 @@
+package com.obs.productmanagement.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LogAnalyzerTest {
+
+    @TempDir
+    Path logs;
+
+    @Test
+    void analyze_shouldProduceScriptOutput_acrossRotatedFilesInDateOrder() throws IOException {
+        // GIVEN : le fichier courant, deux fichiers tournés et un fichier étranger
+        write("app.jsonl",
+                line("7", "DB_WRITE"),
+                line("2", "DB_READ"));
+        write("app.2025-12-22.jsonl",
+                line("2", "DB_WRITE"),
+                line("10", "MOST_EXPENSIVE_SEARCH"));
+        write("app.2025-12-21.jsonl",
+                line("2", "DB_READ"),
+                "{\"message\":\"Started\",\"logger_name\":\"x\"}",
+                line("", "DB_READ"),
+                "{\"userId\":\"7\",\"event\":\"DB_READ\",\"nested\":{\"userId\":\"99\",\"event\":\"X\"},\"tags\":[\"event\"]}");
+        write("other.jsonl", line("99", "DB_READ"));
+
+        // WHEN
+        List<Path> files = LogAnalyzer.logFiles(logs);
+        UserProfiles profiles = LogAnalyzer.analyze(files);
+
+        // THEN : utilisateurs et événements dans l'ordre d'apparition, égalité -> premier vu
+        assertThat(files).extracting(p -> p.getFileName().toString())
+                .containsExactly("app.2025-12-21.jsonl", "app.2025-12-22.jsonl", "app.jsonl");
+        assertThat(profiles.profiles()).extracting(UserProfiles.Profile::toLine).containsExactly(
+                "userId=2 counts={'DB_READ': 2, 'DB_WRITE': 1} profile=DB_READ",
+                "userId=7 counts={'DB_READ': 1, 'DB_WRITE': 1} profile=DB_READ",
+                "userId=10 counts={'MOST_EXPENSIVE_SEARCH': 1} profile=MOST_EXPENSIVE_SEARCH"
+        );
+        assertThat(profiles.lines()).isEqualTo(8);
+    }
+
+    @Test
+    void analyze_shouldSkipMalformedLines_andKeepReadingTheFile() throws IOException {
+        // GIVEN : ligne invalide au milieu, ligne vide, dernière ligne tronquée (fichier en cours d'écriture)
+        write("app.jsonl",
+                line("1", "DB_READ"),
+                "{\"userId\":\"1\",\"event\":",
+                "",
+                "not json",
+                line("1", "DB_WRITE"),
+                line("1", "DB_WRITE"),
+                "{\"userId\":\"1\",\"ev");
+
+        // WHEN
+        UserProfiles profiles = LogAnalyzer.analyze(List.of(logs.resolve("app.jsonl")));
+
+        // THEN
+        assertThat(profiles.profiles()).extracting(UserProfiles.Profile::toLine).containsExactly(
+                "userId=1 counts={'DB_READ': 1, 'DB_WRITE': 2} profile=DB_WRITE");
+        assertThat(profiles.malformedLines()).isEqualTo(3);
+        assertThat(profiles.lines()).isEqualTo(6);
+    }
+
+    @Test
+    void analyze_shouldKeepNonNumericIds_andManyUsers() throws IOException {
+        // GIVEN : assez d'utilisateurs pour agrandir la table primitive plusieurs fois
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            lines.add(line(Integer.toString(i), "DB_READ"));
+        }
+        lines.add(line("007", "DB_WRITE"));
+        lines.add(line("3", "DB_WRITE"));
+        lines.add(line("3", "DB_WRITE"));
+        write("app.jsonl", lines.toArray(String[]::new));
+
+        // WHEN
+        List<UserProfiles.Profile> profiles = LogAnalyzer.analyze(List.of(logs.resolve("app.jsonl"))).profiles();
+
+        // THEN : "007" n'est pas confondu avec 7
+        assertThat(profiles).hasSize(5_001);
+        assertThat(profiles.get(2).toLine()).isEqualTo("userId=3 counts={'DB_READ': 1, 'DB_WRITE': 2} profile=DB_WRITE");
+        assertThat(profiles.get(5_000).toLine()).isEqualTo("userId=007 counts={'DB_WRITE': 1} profile=DB_WRITE");
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Files.write(logs.resolve(name), List.of(lines));
+    }
+
+    private static String line(String userId, String event) {
+        return "{\"@timestamp\":\"2025-12-22T10:00:00Z\",\"message\":\"call\",\"userId\":\"" + userId
+                + "\",\"event\":\"" + event + "\",\"level\":\"INFO\"}";
+    }
+}
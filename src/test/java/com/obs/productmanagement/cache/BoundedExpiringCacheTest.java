@@ -0,0 +1,88 @@
+package com.obs.productmanagement.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private BoundedExpiringCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoundedExpiringCache<>(10, now::get);
+    }
+
+    @Test
+    void get_shouldReturnValue_untilEntryExpires() {
+        // GIVEN
+        cache.put("token", "salem", 2_000);
+
+        // WHEN + THEN
+        assertThat(cache.get("token")).isEqualTo("salem");
+
+        now.set(2_000);
+        assertThat(cache.get("token")).isNull();
+
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldIgnoreEntries_alreadyExpired() {
+        // WHEN
+        cache.put("token", "salem", 500);
+
+        // THEN
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void put_shouldPurgeExpiredEntriesFirst_whenFull() {
+        // GIVEN : 5 entrées courtes, 5 longues
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v" + i, i < 5 ? 1_500 : 9_000);
+        }
+        now.set(1_600);
+
+        // WHEN
+        cache.put("new", "value", 9_000);
+
+        // THEN
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(cache.get("new")).isEqualTo("value");
+        assertThat(cache.get("k9")).isEqualTo("v9");
+        assertThat(cache.evictionCount()).isEqualTo(5);
+    }
+
+    @Test
+    void put_shouldStayBounded_whenNothingHasExpired() {
+        // WHEN
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, "v" + i, 9_000);
+        }
+
+        // THEN
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.evictionCount()).isEqualTo(100 - cache.size());
+    }
+
+    @Test
+    void put_shouldDisableCaching_whenMaxSizeIsZero() {
+        // GIVEN
+        BoundedExpiringCache<String, String> disabled = new BoundedExpiringCache<>(0, now::get);
+
+        // WHEN
+        disabled.put("token", "salem", 9_000);
+
+        // THEN
+        assertThat(disabled.get("token")).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package com.obs.productmanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EncodedResponseCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private EncodedResponseCache cache(int maxEntrySize, int compressionMinSize) {
+        return new EncodedResponseCache(new ObjectMapper(), 10, Duration.ofMinutes(10), maxEntrySize,
+                compressionMinSize, 6, new String[]{"gzip", "deflate"});
+    }
+
+    private List<String> load(List<String> value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    @Test
+    void get_shouldServeSameBytes_whileVersionIsUnchanged() {
+        // GIVEN
+        EncodedResponseCache cache = cache(1 << 20, 1024);
+        EncodedResponseCache.EncodedResponse first = cache.get("categories", "v1", () -> load(List.of("a", "b")));
+
+        // WHEN
+        EncodedResponseCache.EncodedResponse second = cache.get("categories", "v1", () -> load(List.of("x")));
+
+        // THEN
+        assertThat(second).isSameAs(first);
+        assertThat(new String(second.json(), StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+        assertThat(second.isCompressed()).isFalse();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_shouldReload_whenVersionChanged() {
+        // GIVEN
+        EncodedResponseCache cache = cache(1 << 20, 1024);
+        cache.get("categories", "v1", () -> load(List.of("a")));
+
+        // WHEN
+        EncodedResponseCache.EncodedResponse reloaded = cache.get("categories", "v2", () -> load(List.of("b")));
+
+        // THEN
+        assertThat(new String(reloaded.json(), StandardCharsets.UTF_8)).isEqualTo("[\"b\"]");
+        assertThat(cache.get("categories", "v2", () -> load(List.of("c")))).isSameAs(reloaded);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldCompressLargePayloads_withGzipAndDeflate() throws IOException {
+        // GIVEN
+        List<String> large = Collections.nCopies(500, "product");
+        EncodedResponseCache cache = cache(1 << 20, 1024);
+
+        // WHEN : deux clés, le second passage réutilise les Deflater du premier
+        EncodedResponseCache.EncodedResponse first = cache.get("products", "v1", () -> load(large));
+        EncodedResponseCache.EncodedResponse second = cache.get("categories", "v1", () -> load(large));
+
+        // THEN
+        for (EncodedResponseCache.EncodedResponse encoded : List.of(first, second)) {
+            assertThat(encoded.isCompressed()).isTrue();
+            assertThat(encoded.gzip().length).isLessThan(encoded.json().length / 10);
+            try (InputStream gunzip = new GZIPInputStream(new ByteArrayInputStream(encoded.gzip()));
+                 InputStream inflate = new InflaterInputStream(new ByteArrayInputStream(encoded.deflate()))) {
+                assertThat(gunzip.readAllBytes()).isEqualTo(encoded.json());
+                assertThat(inflate.readAllBytes()).isEqualTo(encoded.json());
+            }
+        }
+    }
+
+    @Test
+    void get_shouldNeitherCacheNorCompress_oversizedPayloads() {
+        // GIVEN : 500 * 10 octets > 4096
+        List<String> large = Collections.nCopies(500, "product");
+        EncodedResponseCache cache = cache(4096, 1024);
+
+        // WHEN
+        EncodedResponseCache.EncodedResponse encoded = cache.get("products", "v1", () -> load(large));
+        cache.get("products", "v1", () -> load(large));
+
+        // THEN
+        assertThat(encoded.isCompressed()).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(loads).hasValue(2);
+    }
+}
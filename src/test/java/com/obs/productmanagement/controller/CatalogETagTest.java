@@ -0,0 +1,148 @@
+package com.obs.productmanagement.controller;
+
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cache.responses.compression-min-size=1"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@ActiveProfiles("test")
+class CatalogETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryRepository.findAll().stream()
+                .findFirst()
+                .orElseGet(() -> categoryRepository.save(new Category(null, "ETag", "ETag test", null)))
+                .getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unchangedCatalog_shouldAnswer304_withoutQueryingTheDatabase() throws Exception {
+        for (String url : new String[]{"/api/products", "/api/categories", "/api/products/by-category/" + categoryId}) {
+            // GIVEN
+            String etag = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+            statistics.clear();
+
+            // WHEN / THEN
+            mockMvc.perform(get(url).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+            assertThat(statistics.getPrepareStatementCount()).as(url).isZero();
+        }
+    }
+
+    @Test
+    void gzipClient_shouldGetPrecompressedBody_underTheSameETag() throws Exception {
+        // GIVEN
+        MvcResult plain = mockMvc.perform(get("/api/categories")).andReturn();
+        String etag = plain.getResponse().getHeader("ETag");
+
+        // WHEN
+        MvcResult gzipped = mockMvc.perform(get("/api/categories").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().string("ETag", etag))
+                .andReturn();
+
+        // THEN
+        try (GZIPInputStream gunzip = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertThat(gunzip.readAllBytes()).isEqualTo(plain.getResponse().getContentAsByteArray());
+        }
+        statistics.clear();
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/categories").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void productList_shouldBeStreamedOnEveryRequest_notCached() throws Exception {
+        // GIVEN
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+        statistics.clear();
+
+        // WHEN
+        MvcResult result = mockMvc.perform(get("/api/products").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$").isArray())
+                .andReturn();
+
+        // THEN : relu en base, pas servi depuis EncodedResponseCache (compression laissée à Tomcat)
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(result.getResponse().getContentAsString()).startsWith("[").endsWith("]");
+    }
+
+    @Test
+    void productWrite_shouldChangeETags() throws Exception {
+        // GIVEN
+        String products = mockMvc.perform(get("/api/products")).andReturn().getResponse().getHeader("ETag");
+        String categories = mockMvc.perform(get("/api/categories")).andReturn().getResponse().getHeader("ETag");
+        String byCategory = mockMvc.perform(get("/api/products/by-category/" + categoryId))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // WHEN
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name":"ETag product %d","description":"d","price":10.0,"expiryDate":"2030-01-01","categoryId":%d}"""
+                        .formatted(System.nanoTime(), categoryId)))
+                .andExpect(status().isCreated());
+
+        // THEN
+        mockMvc.perform(get("/api/products").header("If-None-Match", products))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(products)));
+        mockMvc.perform(get("/api/categories").header("If-None-Match", categories))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/by-category/" + categoryId).header("If-None-Match", byCategory))
+                .andExpect(status().isOk());
+    }
+}
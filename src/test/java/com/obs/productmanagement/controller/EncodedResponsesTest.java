@@ -0,0 +1,38 @@
+package com.obs.productmanagement.controller;
+
+import com.obs.productmanagement.cache.EncodedResponseCache.ContentCoding;
+import com.obs.productmanagement.cache.EncodedResponseCache.EncodedResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EncodedResponsesTest {
+
+    private final byte[] bytes = {1};
+    private final EncodedResponse both = new EncodedResponse("v1", bytes, bytes, bytes);
+
+    @Test
+    void negotiate_shouldPreferGzip_onEqualQuality() {
+        assertThat(EncodedResponses.negotiate("gzip, deflate, br", both)).isEqualTo(ContentCoding.GZIP);
+        assertThat(EncodedResponses.negotiate("deflate, gzip", both)).isEqualTo(ContentCoding.GZIP);
+        assertThat(EncodedResponses.negotiate("*", both)).isEqualTo(ContentCoding.GZIP);
+    }
+
+    @Test
+    void negotiate_shouldFollowQualityValues() {
+        assertThat(EncodedResponses.negotiate("gzip;q=0.5, deflate", both)).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(EncodedResponses.negotiate("gzip;q=0, *;q=0.1", both)).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(EncodedResponses.negotiate("gzip;q=0, deflate;q=0", both)).isNull();
+        assertThat(EncodedResponses.negotiate("gzip;q=abc", both)).isNull();
+    }
+
+    @Test
+    void negotiate_shouldOnlyOfferProducedVariants() {
+        EncodedResponse deflateOnly = new EncodedResponse("v1", bytes, null, bytes);
+
+        assertThat(EncodedResponses.negotiate("gzip", deflateOnly)).isNull();
+        assertThat(EncodedResponses.negotiate("gzip, deflate;q=0.1", deflateOnly)).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(EncodedResponses.negotiate("br", both)).isNull();
+        assertThat(EncodedResponses.negotiate(null, both)).isNull();
+    }
+}
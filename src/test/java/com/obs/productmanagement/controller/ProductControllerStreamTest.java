@@ -0,0 +1,72 @@
+package com.obs.productmanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.service.IProductService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerStreamTest {
+
+    @Mock
+    private IProductService productService;
+
+    @Test
+    void streamProducts_shouldStopCursorQuietly_whenClientDisconnects() {
+        // GIVEN : trois produits à écrire, le client coupe dès la première écriture
+        ProductController controller = new ProductController(productService, null, new ObjectMapper(), null, null);
+        AtomicInteger written = new AtomicInteger();
+        doAnswer(invocation -> {
+            Consumer<ProductResponse> consumer = invocation.getArgument(0);
+            for (long id = 1; id <= 3; id++) {
+                consumer.accept(new ProductResponse(id, "Product " + id, null, 9.99, null, "Electronics"));
+                written.incrementAndGet();
+            }
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        // WHEN + THEN : pas d'exception vers le @ControllerAdvice, curseur arrêté au premier échec
+        assertThatCode(() -> controller.streamProducts(new DisconnectedResponse())).doesNotThrowAnyException();
+        assertThat(written).hasValue(0);
+    }
+
+    private static final class DisconnectedResponse extends MockHttpServletResponse {
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("Broken pipe");
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    throw new IOException("Broken pipe");
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
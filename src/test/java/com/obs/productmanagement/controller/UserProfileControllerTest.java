@@ -0,0 +1,60 @@
+package com.obs.productmanagement.controller;
+
+import com.obs.productmanagement.analytics.LiveUserProfiles;
+import com.obs.productmanagement.dto.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileControllerTest {
+
+    private static final long ALICE = 9_001L;
+    private static final long BOB = 9_002L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LiveUserProfiles liveUserProfiles;
+
+    @Test
+    void getProfile_shouldReturnOwnProfile() throws Exception {
+        // GIVEN
+        liveUserProfiles.record(ALICE, "DB_READ");
+
+        // WHEN / THEN
+        mockMvc.perform(get("/api/profiles/" + ALICE).with(as(ALICE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(ALICE));
+    }
+
+    @Test
+    void getProfile_shouldAnswer403_forAnotherUsersProfile() throws Exception {
+        // GIVEN
+        liveUserProfiles.record(BOB, "DB_WRITE");
+
+        // WHEN / THEN
+        mockMvc.perform(get("/api/profiles/" + BOB).with(as(ALICE)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("USER_PROFILE_FORBIDDEN"));
+    }
+
+    private static RequestPostProcessor as(long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId + "@test.com", "user" + userId);
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -0,0 +1,247 @@
+package com.obs.productmanagement.index;
+
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.repository.CategoryRepository;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MostExpensiveIndexTest {
+
+    private static final Long ELECTRONICS = 1L;
+    private static final Long FASHION = 2L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    // Contenu de la base simulée, lu par les requêtes top-K
+    private final List<PricedProduct> catalogue = new ArrayList<>();
+
+    private MostExpensiveIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MostExpensiveIndex(productRepository, categoryRepository, 1000);
+    }
+
+    @Test
+    void reads_shouldBeEmpty_untilFirstRebuild() {
+        assertThat(index.mostExpensive()).isEmpty();
+        assertThat(index.top(ELECTRONICS, 3)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldIndexProductsGloballyAndPerCategory() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"),
+                row(2L, "Gaming PC", 2499.99, ELECTRONICS, "Electronics"),
+                row(3L, "AirPods", 199.99, ELECTRONICS, "Electronics"),
+                row(4L, "Jacket", 119.99, FASHION, "Fashion")
+        );
+
+        // WHEN
+        index.rebuild();
+
+        // THEN : ex aequo au prix max, départagés par id
+        assertThat(names(index.mostExpensive().orElseThrow())).containsExactly("MacBook", "Gaming PC");
+        assertThat(names(index.mostExpensive(FASHION).orElseThrow())).containsExactly("Jacket");
+        assertThat(names(index.top(3).orElseThrow())).containsExactly("MacBook", "Gaming PC", "AirPods");
+        assertThat(index.mostExpensive(99L).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void put_shouldMoveProduct_whenPriceOrCategoryChanges() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"),
+                row(3L, "AirPods", 199.99, ELECTRONICS, "Electronics")
+        );
+        index.rebuild();
+
+        // WHEN : le MacBook baisse et change de catégorie
+        index.put(FASHION, response(1L, "MacBook", 99.0, "Fashion"));
+
+        // THEN
+        assertThat(names(index.mostExpensive().orElseThrow())).containsExactly("AirPods");
+        assertThat(names(index.mostExpensive(ELECTRONICS).orElseThrow())).containsExactly("AirPods");
+        assertThat(names(index.mostExpensive(FASHION).orElseThrow())).containsExactly("MacBook");
+    }
+
+    @Test
+    void remove_shouldPromoteNextProduct() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"),
+                row(3L, "AirPods", 199.99, ELECTRONICS, "Electronics")
+        );
+        index.rebuild();
+
+        // WHEN
+        index.remove(1L);
+
+        // THEN
+        assertThat(names(index.mostExpensive().orElseThrow())).containsExactly("AirPods");
+    }
+
+    @Test
+    void renameAndRemoveCategory_shouldUpdateIndexedProducts() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"),
+                row(4L, "Jacket", 119.99, FASHION, "Fashion")
+        );
+        index.rebuild();
+
+        // WHEN
+        index.renameCategory(ELECTRONICS, "Tech");
+        index.removeCategory(FASHION);
+
+        // THEN
+        assertThat(index.top(10).orElseThrow())
+                .extracting(ProductResponse::categoryName)
+                .containsExactly("Tech");
+    }
+
+    @Test
+    void rebuild_shouldReplayWrites_madeWhileLoading() {
+        // GIVEN : une écriture arrive pendant la lecture en base
+        givenCatalogue(row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"));
+        doAnswer(invocation -> {
+            index.put(FASHION, response(5L, "Coat", 5000.0, "Fashion"));
+            return top(null, invocation.getArgument(0));
+        }).when(productRepository).findTopPriced(any());
+
+        // WHEN
+        index.rebuild();
+
+        // THEN
+        assertThat(names(index.top(10).orElseThrow())).containsExactly("Coat", "MacBook");
+    }
+
+    @Test
+    void rebuild_shouldKeepOnlyTopProducts_andFallBackBeyondThem() {
+        // GIVEN : 10 produits, classements de 4
+        index = new MostExpensiveIndex(productRepository, categoryRepository, 4);
+        for (long id = 1; id <= 10; id++) {
+            catalogue.add(row(id, "P" + id, 100.0 * id, id % 2 == 0 ? ELECTRONICS : FASHION, "c"));
+        }
+        givenCatalogue();
+
+        // WHEN
+        index.rebuild();
+
+        // THEN : 4 produits gardés au global et par catégorie, jamais la table entière
+        verify(productRepository).findTopPriced(Limit.of(4));
+        assertThat(index.size()).isEqualTo(4 + 4 + 4);
+        assertThat(names(index.top(3).orElseThrow())).containsExactly("P10", "P9", "P8");
+        assertThat(names(index.top(FASHION, 4).orElseThrow())).containsExactly("P9", "P7", "P5", "P3");
+        assertThat(index.top(5)).isEmpty();
+    }
+
+    @Test
+    void put_shouldIgnoreProduct_rankedAfterATruncatedRanking() {
+        // GIVEN
+        index = new MostExpensiveIndex(productRepository, categoryRepository, 2);
+        givenCatalogue(
+                row(1L, "MacBook", 2499.99, ELECTRONICS, "Electronics"),
+                row(2L, "Gaming PC", 1999.99, ELECTRONICS, "Electronics"),
+                row(3L, "AirPods", 199.99, ELECTRONICS, "Electronics")
+        );
+        index.rebuild();
+
+        // WHEN
+        index.put(ELECTRONICS, response(4L, "Cable", 9.99, "Electronics"));
+        index.put(ELECTRONICS, response(5L, "Camera", 2999.99, "Electronics"));
+
+        // THEN
+        assertThat(names(index.top(2).orElseThrow())).containsExactly("Camera", "MacBook");
+        assertThat(index.size()).isEqualTo(2 + 2);
+    }
+
+    @Test
+    void remove_shouldRefillRankingFromDatabase_whenItGetsTooShort() {
+        // GIVEN : classements de 4, rechargés sous 2 produits
+        index = new MostExpensiveIndex(productRepository, categoryRepository, 4);
+        for (long id = 1; id <= 10; id++) {
+            catalogue.add(row(id, "P" + id, 100.0 * id, ELECTRONICS, "Electronics"));
+        }
+        givenCatalogue();
+        index.rebuild();
+
+        // WHEN : les trois plus chers sont supprimés
+        for (long id = 10; id >= 8; id--) {
+            long deleted = id;
+            catalogue.removeIf(row -> row.id() == deleted);
+            index.remove(deleted);
+        }
+
+        // THEN
+        verify(productRepository, times(2)).findTopPriced(Limit.of(4));
+        assertThat(names(index.top(3).orElseThrow())).containsExactly("P7", "P6", "P5");
+        assertThat(names(index.top(ELECTRONICS, 3).orElseThrow())).containsExactly("P7", "P6", "P5");
+    }
+
+    @Test
+    void mostExpensive_shouldFallBack_whenTiesFillTheRanking() {
+        // GIVEN
+        index = new MostExpensiveIndex(productRepository, categoryRepository, 2);
+        givenCatalogue(
+                row(1L, "A", 10.0, ELECTRONICS, "Electronics"),
+                row(2L, "B", 10.0, ELECTRONICS, "Electronics"),
+                row(3L, "C", 10.0, FASHION, "Fashion")
+        );
+
+        // WHEN
+        index.rebuild();
+
+        // THEN : un troisième ex aequo peut suivre
+        assertThat(index.mostExpensive()).isEmpty();
+        assertThat(index.mostExpensive(FASHION).orElseThrow()).extracting(ProductResponse::name).containsExactly("C");
+    }
+
+    private void givenCatalogue(PricedProduct... rows) {
+        catalogue.addAll(List.of(rows));
+        lenient().when(productRepository.findTopPriced(any()))
+                .thenAnswer(invocation -> top(null, invocation.getArgument(0)));
+        lenient().when(productRepository.findTopPricedInCategory(any(), any()))
+                .thenAnswer(invocation -> top(invocation.getArgument(0), invocation.getArgument(1)));
+        when(categoryRepository.findAllIds()).thenReturn(List.of(ELECTRONICS, FASHION));
+    }
+
+    private List<PricedProduct> top(Long categoryId, Limit limit) {
+        return catalogue.stream()
+                .filter(row -> categoryId == null || Objects.equals(row.categoryId(), categoryId))
+                .sorted(Comparator.comparing(PricedProduct::price).reversed().thenComparing(PricedProduct::id))
+                .limit(limit.max())
+                .toList();
+    }
+
+    private static PricedProduct row(Long id, String name, Double price, Long categoryId, String categoryName) {
+        return new PricedProduct(id, name, null, price, null, categoryId, categoryName);
+    }
+
+    private static ProductResponse response(Long id, String name, Double price, String categoryName) {
+        return new ProductResponse(id, name, null, price, null, categoryName);
+    }
+
+    private static List<String> names(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::name).toList();
+    }
+}
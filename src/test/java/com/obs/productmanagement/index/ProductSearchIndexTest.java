@@ -0,0 +1,317 @@
+package com.obs.productmanagement.index;
+
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    private static final Long ELECTRONICS = 1L;
+    private static final Long FASHION = 2L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    // Contenu de la base simulée : réponses par id et catégorie de chaque produit
+    private final Map<Long, ProductResponse> catalogue = new TreeMap<>();
+    private final Map<Long, Long> categoryOf = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(productRepository);
+        lenient().when(productRepository.findIndexPage(anyLong(), any()))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), invocation.<Limit>getArgument(1).max()));
+        lenient().when(productRepository.findResponsesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return catalogue.values().stream().filter(product -> ids.contains(product.id())).toList();
+        });
+    }
+
+    @Test
+    void search_shouldBeEmpty_untilFirstRebuild() {
+        assertThat(index.search("macbook", 10)).isEmpty();
+    }
+
+    @Test
+    void terms_shouldLowercaseAndStripAccents() {
+        assertThat(ProductSearchIndex.terms("Écran 4K, très-léger!")).containsExactly("ecran", "4k", "tres", "leger");
+    }
+
+    @Test
+    void distance_shouldCountTranspositionAsOneEdit_andStopAboveMax() {
+        assertThat(ProductSearchIndex.distance("laptop", "lpatop", 2)).isEqualTo(1);
+        assertThat(ProductSearchIndex.distance("laptop", "laptops", 2)).isEqualTo(1);
+        assertThat(ProductSearchIndex.distance("laptop", "tablet", 1)).isEqualTo(2);
+    }
+
+    @Test
+    void search_shouldRankNameMatchesBeforeDescriptionMatches() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "Laptop sleeve", "Protects any wireless mouse", FASHION),
+                row(2L, "Wireless mouse", "Ergonomic mouse for laptops", ELECTRONICS),
+                row(3L, "Desk lamp", "Warm light", ELECTRONICS)
+        );
+
+        // WHEN
+        index.rebuild();
+
+        // THEN
+        assertThat(names(index.search("wireless mouse", 10).orElseThrow()))
+                .containsExactly("Wireless mouse", "Laptop sleeve");
+        assertThat(index.search("lamp mouse", 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndTypos() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook Pro", "Apple laptop", ELECTRONICS),
+                row(2L, "Écouteurs sans fil", "Réduction de bruit", ELECTRONICS)
+        );
+        index.rebuild();
+
+        // WHEN / THEN
+        assertThat(names(index.search("macb", 10).orElseThrow())).containsExactly("MacBook Pro");
+        assertThat(names(index.search("lpatop", 10).orElseThrow())).containsExactly("MacBook Pro");
+        assertThat(names(index.search("ecouteur", 10).orElseThrow())).containsExactly("Écouteurs sans fil");
+        // Pas de faute tolérée sous 3 caractères
+        assertThat(index.search("du", 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void search_shouldCapTypoExpansions() {
+        // GIVEN : 25 termes à une faute de "mouse" ("mousa" ... "mousz")
+        List<IndexedProduct> rows = new ArrayList<>();
+        long id = 1;
+        for (char last = 'a'; last <= 'z'; last++) {
+            if (last != 'e') {
+                rows.add(row(id++, "Mous" + last, null, ELECTRONICS));
+            }
+        }
+        givenCatalogue(rows.toArray(IndexedProduct[]::new));
+        index.rebuild();
+
+        // WHEN
+        List<ProductResponse> found = index.search("mouse", 100).orElseThrow();
+
+        // THEN
+        assertThat(found).hasSize(ProductSearchIndex.MAX_TYPO_EXPANSIONS);
+    }
+
+    @Test
+    void search_shouldFindTyposOfTermsAddedIncrementally_andAfterPurge() {
+        // GIVEN
+        givenCatalogue(row(1L, "Desk lamp", null, ELECTRONICS));
+        index.rebuild();
+        save(ELECTRONICS, response(2L, "Mechanical keyboard", null, "Electronics"));
+
+        // WHEN / THEN
+        assertThat(names(index.search("keybaord", 10).orElseThrow())).containsExactly("Mechanical keyboard");
+
+        // WHEN : la suppression déclenche une purge, qui reconstruit le dictionnaire
+        delete(1L);
+
+        // THEN
+        assertThat(names(index.search("keybaord", 10).orElseThrow())).containsExactly("Mechanical keyboard");
+        assertThat(index.search("lmap", 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void mask_shouldChangeByAtMostTwoBitsPerEdit() {
+        assertThat(Long.bitCount(ProductSearchIndex.mask("mouse") ^ ProductSearchIndex.mask("moose"))).isLessThanOrEqualTo(2);
+        assertThat(Long.bitCount(ProductSearchIndex.mask("laptop") ^ ProductSearchIndex.mask("lpatop"))).isZero();
+        assertThat(Long.bitCount(ProductSearchIndex.mask("laptop") ^ ProductSearchIndex.mask("tablet"))).isGreaterThan(2);
+    }
+
+    @Test
+    void search_shouldPreferExactTerm_overPrefixAndTypo() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "Phones case", null, ELECTRONICS),
+                row(2L, "Phone", null, ELECTRONICS),
+                row(3L, "Phono stand", null, ELECTRONICS)
+        );
+        index.rebuild();
+
+        // WHEN / THEN
+        assertThat(names(index.search("phone", 10).orElseThrow())).containsExactly("Phone", "Phones case", "Phono stand");
+        assertThat(names(index.search("phone", 2).orElseThrow())).containsExactly("Phone", "Phones case");
+    }
+
+    @Test
+    void putAndRemove_shouldUpdateIndexIncrementally() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "MacBook Pro", "Apple laptop", ELECTRONICS),
+                row(2L, "AirPods", "Apple earbuds", ELECTRONICS)
+        );
+        index.rebuild();
+
+        // WHEN : le MacBook est renommé, les AirPods supprimés
+        save(ELECTRONICS, response(1L, "ThinkPad", "Lenovo laptop", "Electronics"));
+        delete(2L);
+
+        // THEN
+        assertThat(index.search("apple", 10).orElseThrow()).isEmpty();
+        assertThat(names(index.search("laptop", 10).orElseThrow())).containsExactly("ThinkPad");
+        assertThat(index.documentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removeCategory_shouldDropOnlyItsProducts() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "Leather bag", null, ELECTRONICS),
+                row(4L, "Leather jacket", null, FASHION)
+        );
+        index.rebuild();
+
+        // WHEN
+        index.removeCategory(FASHION);
+        save(FASHION, response(6L, "Leather boots", null, "Fashion"));
+
+        // THEN
+        assertThat(names(index.search("leather", 10).orElseThrow())).containsExactly("Leather bag", "Leather boots");
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void remove_shouldPurgeDeletedDocuments_andKeepOthersSearchable() {
+        // GIVEN : 8 produits, chacun avec un terme propre
+        List<IndexedProduct> rows = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            rows.add(row(id, "Item word" + id, null, ELECTRONICS));
+        }
+        givenCatalogue(rows.toArray(IndexedProduct[]::new));
+        index.rebuild();
+
+        // WHEN : assez de suppressions pour déclencher une purge, puis une mise à jour d'un produit chargé
+        delete(1L);
+        delete(2L);
+        delete(3L);
+        save(ELECTRONICS, response(8L, "Item renamed", null, "Electronics"));
+
+        // THEN : les termes des produits supprimés ont disparu du dictionnaire
+        assertThat(index.documentCount()).isEqualTo(5);
+        assertThat(index.termCount()).isEqualTo(1 + 4 + 1);
+        assertThat(index.search("word2", 10).orElseThrow()).isEmpty();
+        assertThat(index.search("word8", 10).orElseThrow()).isEmpty();
+        assertThat(names(index.search("item", 10).orElseThrow()))
+                .containsExactly("Item word4", "Item word5", "Item word6", "Item word7", "Item renamed");
+    }
+
+    @Test
+    void search_shouldLoadTopHitsById_andSkipProductsDeletedSince() {
+        // GIVEN
+        givenCatalogue(
+                row(1L, "Desk lamp", null, ELECTRONICS),
+                row(2L, "Lamp shade", null, ELECTRONICS)
+        );
+        index.rebuild();
+        catalogue.remove(1L);
+
+        // WHEN
+        List<ProductResponse> results = index.search("lamp", 10).orElseThrow();
+
+        // THEN : une seule lecture pour les ids classés
+        assertThat(names(results)).containsExactly("Lamp shade");
+        verify(productRepository).findResponsesByIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void rebuild_shouldReadKeysetPages_andMergeThemIntoOneIndex() {
+        // GIVEN : plus de deux pages
+        List<IndexedProduct> rows = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            rows.add(row(id, "Product " + id, id % 2 == 0 ? "even" : "odd", ELECTRONICS));
+        }
+        givenCatalogue(rows.toArray(IndexedProduct[]::new));
+
+        // WHEN
+        index.rebuild();
+
+        // THEN
+        verify(productRepository).findIndexPage(0L, Limit.of(ProductSearchIndex.PAGE_SIZE));
+        verify(productRepository).findIndexPage(4096L, Limit.of(ProductSearchIndex.PAGE_SIZE));
+        verify(productRepository).findIndexPage(8192L, Limit.of(ProductSearchIndex.PAGE_SIZE));
+        verifyNoMoreInteractions(productRepository);
+        assertThat(index.documentCount()).isEqualTo(10_000);
+        assertThat(index.matchingIds("product 9999", 10).orElseThrow()).containsExactly(9999L);
+        assertThat(index.matchingIds("even product", 10_000).orElseThrow()).hasSize(5_000);
+    }
+
+    @Test
+    void rebuild_shouldReplayWrites_madeWhileLoading() {
+        // GIVEN : une écriture arrive pendant la lecture en base
+        givenCatalogue(row(1L, "Wool scarf", null, FASHION));
+        doAnswer(invocation -> {
+            List<IndexedProduct> page = page(invocation.getArgument(0), ProductSearchIndex.PAGE_SIZE);
+            save(FASHION, response(5L, "Wool coat", null, "Fashion"));
+            return page;
+        }).when(productRepository).findIndexPage(anyLong(), any());
+
+        // WHEN
+        index.rebuild();
+
+        // THEN
+        assertThat(names(index.search("wool", 10).orElseThrow())).containsExactlyInAnyOrder("Wool coat", "Wool scarf");
+    }
+
+    private void givenCatalogue(IndexedProduct... rows) {
+        for (IndexedProduct row : rows) {
+            catalogue.put(row.id(), response(row.id(), row.name(), row.description(), categoryName(row.categoryId())));
+            categoryOf.put(row.id(), row.categoryId());
+        }
+    }
+
+    // Écriture en base puis dans l'index, comme ProductServiceImpl
+    private void save(Long categoryId, ProductResponse response) {
+        catalogue.put(response.id(), response);
+        categoryOf.put(response.id(), categoryId);
+        index.put(categoryId, response);
+    }
+
+    private void delete(Long productId) {
+        catalogue.remove(productId);
+        index.remove(productId);
+    }
+
+    private List<IndexedProduct> page(Long afterId, int size) {
+        return catalogue.values().stream()
+                .filter(product -> product.id() > afterId)
+                .limit(size)
+                .map(product -> row(product.id(), product.name(), product.description(), categoryOf.get(product.id())))
+                .toList();
+    }
+
+    private static IndexedProduct row(Long id, String name, String description, Long categoryId) {
+        return new IndexedProduct(id, name, description, categoryId);
+    }
+
+    private static String categoryName(Long categoryId) {
+        return categoryId.equals(ELECTRONICS) ? "Electronics" : "Fashion";
+    }
+    private static ProductResponse response(Long id, String name, String description, String categoryName) {
+        return new ProductResponse(id, name, description, null, null, categoryName);
+    }
+
+    private static List<String> names(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::name).toList();
+    }
+}
@@ -0,0 +1,196 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchingAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final CountDownLatch diskReleased = new CountDownLatch(1);
+    private Logger logger;
+    private BatchingAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger("com.obs.productmanagement.service.Test");
+        appender = new BatchingAsyncAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+    }
+
+    @AfterEach
+    void tearDown() {
+        diskReleased.countDown();
+        appender.stop();
+    }
+
+    @Test
+    void stop_shouldWriteEveryEvent_inOrder() {
+        // GIVEN
+        Recording sink = attachRecording(false);
+        appender.start();
+
+        // WHEN
+        for (int i = 0; i < 5_000; i++) {
+            appender.doAppend(event(Level.INFO, "event-" + i));
+        }
+        appender.stop();
+
+        // THEN
+        assertThat(sink.messages).hasSize(5_000);
+        assertThat(sink.messages.get(0)).isEqualTo("event-0");
+        assertThat(sink.messages.get(4_999)).isEqualTo("event-4999");
+        assertThat(appender.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void append_shouldDropAndCount_whenRingIsFull_withDropPolicy() {
+        // GIVEN : écriture bloquée, anneau de 4 places
+        Recording sink = attachRecording(true);
+        appender.setCapacity(4);
+        appender.setOverflowPolicy(BatchingAsyncAppender.OverflowPolicy.DROP);
+        appender.start();
+
+        // WHEN
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.ERROR, "event-" + i));
+        }
+        diskReleased.countDown();
+        appender.stop();
+
+        // THEN : au plus un lot en cours d'écriture + l'anneau plein
+        assertThat(appender.getDroppedCount()).isGreaterThanOrEqualTo(15);
+        assertThat(sink.messages.size() + appender.getDroppedCount()).isEqualTo(20);
+    }
+
+    @Test
+    void append_shouldKeepWarnings_andDropInfo_withDropBelowWarnPolicy() throws Exception {
+        // GIVEN
+        Recording sink = attachRecording(true);
+        appender.setCapacity(4);
+        appender.setOverflowPolicy(BatchingAsyncAppender.OverflowPolicy.DROP_BELOW_WARN);
+        appender.start();
+        appender.doAppend(event(Level.INFO, "first"));
+        awaitWriterBusy();
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.INFO, "info-" + i));
+        }
+
+        // WHEN : le WARN attend une place tant que le disque est bloqué
+        CompletableFuture<Void> warn = CompletableFuture.runAsync(() -> appender.doAppend(event(Level.WARN, "warn")));
+        Thread.sleep(100);
+        assertThat(warn).isNotDone();
+        diskReleased.countDown();
+        warn.get(5, TimeUnit.SECONDS);
+        appender.stop();
+
+        // THEN
+        assertThat(sink.messages).contains("warn");
+        assertThat(appender.getDroppedCount()).isGreaterThan(0);
+    }
+
+    @Test
+    void writer_shouldFlushFileOncePerBatch_withoutWaitingForStop(@TempDir Path dir) throws Exception {
+        // GIVEN : fichier avec immediateFlush=false et un gros tampon
+        Path file = dir.resolve("app.jsonl");
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setImmediateFlush(false);
+        fileAppender.setEncoder(encoder());
+        fileAppender.start();
+        appender.addAppender(fileAppender);
+        appender.start();
+
+        // WHEN
+        for (int i = 0; i < 3; i++) {
+            appender.doAppend(event(Level.INFO, "line-" + i));
+        }
+
+        // THEN : les lignes sont sur disque alors que l'appender tourne encore
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.readAllLines(file).size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(Files.readAllLines(file)).containsExactly("line-0", "line-1", "line-2");
+        assertThat(appender.isStarted()).isTrue();
+    }
+
+    @Test
+    void start_shouldFail_withoutAttachedAppender() {
+        appender.start();
+
+        assertThat(appender.isStarted()).isFalse();
+    }
+
+    // Le thread d'écriture a pris le premier événement et attend le disque
+    private void awaitWriterBusy() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (appender.getQueueSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(appender.getQueueSize()).isZero();
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(getClass().getName(), logger, level, message, null, null);
+    }
+
+    private PatternLayoutEncoder encoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Recording attachRecording(boolean waitForDisk) {
+        Recording sink = new Recording(waitForDisk ? diskReleased : new CountDownLatch(0));
+        sink.setContext(context);
+        sink.start();
+        appender.addAppender(sink);
+        return sink;
+    }
+
+    // Appender de test : peut simuler un disque bloqué jusqu'à diskReleased
+    private static final class Recording extends UnsynchronizedAppenderBase<ILoggingEvent> {
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch disk;
+
+        Recording(CountDownLatch disk) {
+            this.disk = disk;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                disk.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.obs.productmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.obs.productmanagement.dto.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoggingMdcFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final List<Map<String, String>> mdcOfEvents = new CopyOnWriteArrayList<>();
+    private final LoggingMdcFilter filter = new LoggingMdcFilter();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        context.addTurboFilter(new RequestContextTurboFilter());
+        logger = context.getLogger("com.obs.productmanagement.service.Test");
+        logger.setLevel(Level.INFO);
+
+        UnsynchronizedAppenderBase<ILoggingEvent> recording = new UnsynchronizedAppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                mdcOfEvents.add(new HashMap<>(event.getMDCPropertyMap()));
+            }
+        };
+        recording.setContext(context);
+        recording.start();
+        logger.addAppender(recording);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(42L, "salem@example.com", "Salem"), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+        context.stop();
+    }
+
+    @Test
+    void emittedEvent_shouldCarryRequestMdc_andMdcIsClearedAfterRequest() throws Exception {
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products/17"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    logger.info("first");
+                    logger.info("second");
+                });
+
+        // THEN
+        assertThat(mdcOfEvents).hasSize(2).allSatisfy(mdc -> assertThat(mdc).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "userId", "42",
+                "userEmail", "salem@example.com",
+                "httpMethod", "GET",
+                "httpPath", "/api/products/17")));
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+        assertThat(RequestContext.active()).isNull();
+    }
+
+    @Test
+    void keysPutDuringRequest_shouldNotLeakIntoNextRequest() throws Exception {
+        // GIVEN : un service pose "event" sans le retirer
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/products/17"), new MockHttpServletResponse(),
+                (req, res) -> MDC.put("event", "DB_WRITE"));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(7L, "other@example.com", "Other"), null, List.of()));
+
+        // WHEN : requête suivante sur le même thread
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                (req, res) -> logger.info("next"));
+
+        // THEN
+        assertThat(mdcOfEvents).singleElement().satisfies(mdc -> assertThat(mdc)
+                .doesNotContainKey("event")
+                .containsEntry("userId", "7"));
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+    }
+
+    @Test
+    void disabledLogging_shouldLeaveMdcUntouched() throws Exception {
+        // GIVEN
+        Map<String, String> seenByHandler = new HashMap<>();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    logger.debug("disabled");
+                    seenByHandler.put("userId", MDC.get("userId"));
+                    seenByHandler.put("contextUser", String.valueOf(RequestContext.active().userId()));
+                });
+
+        // THEN
+        assertThat(mdcOfEvents).isEmpty();
+        assertThat(seenByHandler.get("userId")).isNull();
+        assertThat(seenByHandler.get("contextUser")).isEqualTo("42");
+    }
+
+    @Test
+    void anonymousRequest_shouldLogWithoutUserFields() throws Exception {
+        // GIVEN
+        SecurityContextHolder.clearContext();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/users"), new MockHttpServletResponse(),
+                (req, res) -> logger.warn("anonymous"));
+
+        // THEN
+        assertThat(mdcOfEvents).singleElement().satisfies(mdc -> assertThat(mdc)
+                .doesNotContainKeys("userId", "userEmail")
+                .containsEntry("httpPath", "/api/users"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.obs.productmanagement.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bout en bout : quelques appels d'API puis lecture de /actuator/prometheus sans jeton, sur le port
+// de management ; le port public refuse les mêmes chemins à un client anonyme
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void prometheus_shouldExposeLatencyHistograms_jdbcJwtAndErrorMetrics() throws Exception {
+        // GIVEN : un utilisateur connecté qui lit un produit absent
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"name":"metrics","age":30,"email":"metrics@test.com","password":"secret123"}"""))
+                .andExpect(status().isCreated());
+        String login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"login":"metrics@test.com","password":"secret123"}"""))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readValue(login, JsonNode.class).get("token").asText();
+
+        mockMvc.perform(get("/api/products/999999").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+
+        // WHEN
+        HttpResponse<String> scrape = httpGet(managementPort, "/actuator/prometheus");
+
+        // THEN
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        assertThat(scrape.body())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("handler=\"ProductController.getProductById\"")
+                .contains("handler=\"AuthController.login\"")
+                .contains("jdbc_execution_seconds_count{type=\"statement\"}")
+                .contains("security_jwt_verification_seconds_count{outcome=\"valid\"}")
+                .contains("api_errors_total{code=\"PRODUCT_NOT_FOUND\",status=\"404\"} 1.0")
+                .contains("security_password_verify_queue")
+                .contains("cache_gets_total{cache=\"jwt\",result=\"miss\"}");
+    }
+
+    @Test
+    void health_shouldBeOpen_onManagementPort() throws Exception {
+        assertThat(httpGet(managementPort, "/actuator/health").statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void actuator_shouldRejectAnonymousRequests_onPublicPort() throws Exception {
+        // GIVEN / WHEN
+        HttpResponse<String> prometheus = httpGet(serverPort, "/actuator/prometheus");
+        HttpResponse<String> health = httpGet(serverPort, "/actuator/health");
+
+        // THEN
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(prometheus.statusCode()).isEqualTo(403);
+        assertThat(prometheus.body()).doesNotContain("http_server_requests");
+        assertThat(health.statusCode()).isEqualTo(403);
+    }
+
+    private HttpResponse<String> httpGet(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProductIdGenerationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAll_shouldAllocateIdsWithoutInsert_andFlushInBatches() {
+        // GIVEN
+        Category category = categoryRepository.saveAndFlush(new Category(null, "Electronics", "Electronic devices", null));
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            products.add(new Product(null, "product-" + i, 10.0 + i, "description", new Date(), category));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        productRepository.saveAll(products);
+
+        // THEN : ids connus avant tout INSERT
+        assertThat(products).extracting(Product::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isZero();
+
+        entityManager.flush();
+
+        // 120 lignes : 3 batchs d'INSERT + les réservations de blocs, au lieu de 120 INSERT unitaires
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+}
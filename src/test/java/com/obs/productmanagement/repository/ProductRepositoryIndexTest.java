@@ -0,0 +1,171 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Vérifie sur H2, avec le schéma créé par les migrations Flyway, que les requêtes
+ * générées pour ProductRepository passent par un index et non par un parcours de table.
+ * Le SQL réellement émis par Hibernate est capturé puis passé à EXPLAIN.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.obs.productmanagement.repository.ProductRepositoryIndexTest$CapturingInspector")
+@ActiveProfiles("test")
+class ProductRepositoryIndexTest {
+
+    private static final String PRODUCT_TABLE_SCAN = "PUBLIC.PRODUCT.tableScan";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < 20; c++) {
+            entityManager.createNativeQuery("INSERT INTO category (name, description) VALUES (?1, 'description')")
+                    .setParameter(1, "category-" + c)
+                    .executeUpdate();
+        }
+        categoryId = ((Number) entityManager.createNativeQuery("SELECT MIN(id) FROM category").getSingleResult()).longValue();
+
+        for (int i = 0; i < 2_000; i++) {
+            entityManager.createNativeQuery("INSERT INTO product (name, price, category_id) VALUES (?1, ?2, ?3)")
+                    .setParameter(1, "product-" + i)
+                    .setParameter(2, (double) (i % 997))
+                    .setParameter(3, categoryId + i % 20)
+                    .executeUpdate();
+        }
+        CapturingInspector.SQL.clear();
+    }
+
+    @Test
+    void findMostExpensiveProducts_shouldUsePriceIndex() {
+        String plan = explain(() -> productRepository.findMostExpensiveProducts());
+
+        assertThat(plan).contains("IDX_PRODUCT_PRICE").doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findMostExpensiveProductsByCategoryId_shouldUseCategoryPriceIndex() {
+        String plan = explain(() -> productRepository.findMostExpensiveProductsByCategoryId(categoryId));
+
+        assertThat(plan).contains("IDX_PRODUCT_CATEGORY_PRICE").doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findByCategoryId_shouldNotScanProductTable() {
+        String plan = explain(() -> productRepository.findByCategoryId(categoryId));
+
+        assertThat(plan).doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findPageOrderByPrice_shouldNotScanProductTable() {
+        String plan = explain(() -> productRepository.findPageOrderByPrice(10.0, 5L, Limit.of(51)));
+
+        assertThat(plan).doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findUnpricedPageOrderById_shouldNotScanProductTable() {
+        String plan = explain(() -> productRepository.findUnpricedPageOrderById(5L, Limit.of(51)), 5L, 51);
+
+        assertThat(plan).doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findTopByPriceInCategory_shouldNotScanProductTable() {
+        String plan = explain(() -> productRepository.findTopByPriceInCategory(categoryId, Limit.of(10)));
+
+        assertThat(plan).doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findFiltered_onPriceAndCategory_shouldNotScanProductTable() {
+        Specification<Product> filter = ProductSpecifications.priceAtLeast(900)
+                .and(ProductSpecifications.inCategories(List.of(categoryId)));
+
+        String plan = explain(() -> productRepository.findFiltered(filter, Limit.of(50)), 900.0, categoryId, 50);
+
+        assertThat(plan).doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void findFiltered_onExpiryWindow_shouldUseExpiryDateIndex() {
+        Timestamp from = Timestamp.valueOf("2030-01-01 00:00:00");
+        Timestamp before = Timestamp.valueOf("2030-02-01 00:00:00");
+        Specification<Product> filter = ProductSpecifications.expiresFrom(from)
+                .and(ProductSpecifications.expiresBefore(before));
+
+        String plan = explain(() -> productRepository.findFiltered(filter, Limit.of(50)), from, before, 50);
+
+        assertThat(plan).contains("IDX_PRODUCT_EXPIRY_DATE").doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    @Test
+    void countByCategory_onExpiryWindow_shouldUseCategoryExpiryDateIndex() {
+        Timestamp from = Timestamp.valueOf("2030-01-01 00:00:00");
+        Timestamp before = Timestamp.valueOf("2030-02-01 00:00:00");
+        Specification<Product> filter = ProductSpecifications.expiresFrom(from)
+                .and(ProductSpecifications.expiresBefore(before));
+
+        String plan = explain(() -> productRepository.countByCategory(filter), from, before);
+
+        assertThat(plan).contains("IDX_PRODUCT_CATEGORY_EXPIRY_DATE").doesNotContain(PRODUCT_TABLE_SCAN);
+    }
+
+    // Exécute l'appel, récupère le SQL émis et renvoie son plan (tous les paramètres liés à categoryId)
+    private String explain(Runnable repositoryCall) {
+        return explain(repositoryCall, (Object[]) null);
+    }
+
+    // Paramètres liés dans l'ordre du SQL ; null : tous liés à categoryId
+    private String explain(Runnable repositoryCall, Object... parameters) {
+        repositoryCall.run();
+        assertThat(CapturingInspector.SQL).isNotEmpty();
+        String sql = CapturingInspector.SQL.get(CapturingInspector.SQL.size() - 1);
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, parameters == null ? categoryId : parameters[i - 1]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
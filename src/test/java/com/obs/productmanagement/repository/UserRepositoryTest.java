@@ -0,0 +1,56 @@
+package com.obs.productmanagement.repository;
+
+import com.obs.productmanagement.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Contraintes de la table users après la migration V4
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void sameAge_shouldBeAllowed() {
+        userRepository.save(user("Alice", 30, "alice@test.com"));
+        userRepository.save(user("Bob", 30, "bob@test.com"));
+
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicateEmail_shouldBeRejectedByDatabase() {
+        userRepository.save(user("Alice", 30, "alice@test.com"));
+
+        assertThatThrownBy(() -> {
+            userRepository.save(user("Alice bis", 31, "alice@test.com"));
+            userRepository.findAll(); // flush
+        }).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void findTop2ByName_shouldReturnHomonyms() {
+        userRepository.save(user("Alice", 30, "alice@test.com"));
+        userRepository.save(user("Alice", 31, "alice2@test.com"));
+        userRepository.save(user("Alice", 32, "alice3@test.com"));
+
+        assertThat(userRepository.findTop2ByName("Alice")).hasSize(2);
+        assertThat(userRepository.findTop2ByName("Bob")).isEmpty();
+    }
+
+    private static User user(String name, int age, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setAge(age);
+        user.setEmail(email);
+        user.setPassword("{bcrypt}hash");
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.dto.UserPrincipal;
+import com.obs.productmanagement.dto.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final Duration INTERVAL = Duration.ofDays(7);
+    private static final Duration OVERLAP = Duration.ofDays(2);
+
+    @TempDir
+    Path dir;
+
+    private Path keystore;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        keystore = dir.resolve("jwt-keystore.p12");
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void constructor_shouldCreateKeystore_andShareItWithAnotherNode() {
+        // GIVEN
+        JwtKeyRing nodeA = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+
+        // WHEN : une deuxième instance démarre sur le même fichier
+        JwtKeyRing nodeB = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+
+        // THEN
+        assertThat(keystore).exists();
+        assertThat(nodeB.signingKey().kid()).isEqualTo(nodeA.signingKey().kid());
+
+        String token = jwtService(nodeA).generateToken(new UserResponse(1L, "Salem", 25, "salem@test.com"));
+        UserPrincipal principal = jwtService(nodeB).extractPrincipal(token);
+        assertThat(principal).isEqualTo(new UserPrincipal(1L, "salem@test.com", "Salem"));
+    }
+
+    @Test
+    void rotateIfNeeded_shouldKeepPreviousKey_untilOverlapHasElapsed() {
+        // GIVEN
+        JwtKeyRing ring = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+        String firstKid = ring.signingKey().kid();
+        String oldToken = jwtService(ring).generateToken(new UserResponse(1L, "Salem", 25, "salem@test.com"));
+
+        // WHEN : l'intervalle de rotation est dépassé
+        clock.advance(INTERVAL);
+        ring.rotateIfNeeded();
+
+        // THEN : nouvelle clé active, l'ancienne vérifie encore
+        assertThat(ring.signingKey().kid()).isNotEqualTo(firstKid);
+        assertThat(ring.keyIds()).contains(firstKid);
+        assertThat(jwtService(ring).isTokenValid(oldToken)).isTrue();
+
+        // WHEN : fin du chevauchement
+        clock.advance(OVERLAP);
+        ring.rotateIfNeeded();
+
+        // THEN
+        assertThat(ring.keyIds()).doesNotContain(firstKid).hasSize(1);
+    }
+
+    @Test
+    void verificationKey_shouldReloadKeystore_whenKidWasRotatedByAnotherNode() {
+        // GIVEN
+        JwtKeyRing nodeA = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+        JwtKeyRing nodeB = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+
+        clock.advance(INTERVAL);
+        nodeA.rotateIfNeeded();
+        String rotatedKid = nodeA.signingKey().kid();
+
+        // WHEN + THEN
+        assertThat(nodeB.verificationKey(rotatedKid)).isEqualTo(nodeA.signingKey().key());
+        assertThat(nodeB.signingKey().kid()).isEqualTo(rotatedKid);
+    }
+
+    @Test
+    void verificationKey_shouldReloadAtMostOnce_perReloadInterval() {
+        // GIVEN : nodeB a déjà relu pour un kid inconnu
+        JwtKeyRing nodeA = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+        JwtKeyRing nodeB = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+        clock.advance(INTERVAL);
+        assertThat(nodeB.verificationKey("0000000000000-deadbeef")).isNull();
+
+        // WHEN : nodeA tourne juste après
+        nodeA.rotateIfNeeded();
+        String rotatedKid = nodeA.signingKey().kid();
+
+        // THEN : pas de nouvelle relecture avant 5 s
+        assertThat(nodeB.verificationKey(rotatedKid)).isNull();
+        clock.advance(Duration.ofSeconds(5));
+        assertThat(nodeB.verificationKey(rotatedKid)).isEqualTo(nodeA.signingKey().key());
+    }
+
+    @Test
+    void constructor_shouldFailFast_whenNoPasswordIsConfigured() {
+        // WHEN + THEN
+        assertThatThrownBy(() -> new JwtKeyRing(keystore, "", INTERVAL, OVERLAP, clock))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("JWT_KEYSTORE_PASSWORD");
+        assertThatThrownBy(() -> new JwtKeyRing(keystore, null, INTERVAL, OVERLAP, clock))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(keystore).doesNotExist();
+    }
+
+    @Test
+    void verificationKey_shouldReturnNull_forUnknownKid() {
+        // GIVEN
+        JwtKeyRing ring = new JwtKeyRing(keystore, "changeit", INTERVAL, OVERLAP, clock);
+
+        // WHEN + THEN
+        assertThat(ring.verificationKey("0000000000000-deadbeef")).isNull();
+        assertThat(ring.verificationKey(null)).isNull();
+    }
+
+    private static JwtService jwtService(JwtKeyRing ring) {
+        return new JwtService(ring, new VerifiedTokenCache(0));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
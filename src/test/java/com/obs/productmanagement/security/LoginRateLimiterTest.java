@@ -0,0 +1,121 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.exception.LoginThrottledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 3 tentatives par login puis une toutes les 10 s ; 5 par IP puis une par seconde
+        limiter = new LoginRateLimiter(3, Duration.ofSeconds(10), 5, Duration.ofSeconds(1), now::get);
+    }
+
+    @Test
+    void acquire_shouldAllowBurst_thenRejectWithRetryAfter() {
+        // GIVEN
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("salem@test.com", "10.0.0." + i);
+        }
+
+        // WHEN + THEN
+        assertThatThrownBy(() -> limiter.acquire("salem@test.com", "10.0.0.9"))
+                .isInstanceOf(LoginThrottledException.class)
+                .extracting(e -> ((LoginThrottledException) e).getRetryAfterSeconds())
+                .isEqualTo(10L);
+        assertThat(limiter.rejectedByLogin()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldRefillOneTokenPerInterval() {
+        // GIVEN : seau vidé
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("salem", "10.0.0." + i);
+        }
+
+        // WHEN : 10 s plus tard, un seul jeton est revenu
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // THEN
+        limiter.acquire("salem", "10.0.0.20");
+        assertThatThrownBy(() -> limiter.acquire("salem", "10.0.0.21"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void acquire_shouldLimitPerIp_acrossLogins_andIgnoreLoginCase() {
+        // WHEN : une IP essaie des comptes différents
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "10.0.0.1");
+        }
+
+        // THEN
+        assertThatThrownBy(() -> limiter.acquire("user9", "10.0.0.1"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(limiter.rejectedByIp()).isEqualTo(1);
+
+        // et le login est normalisé avant comptage
+        limiter.acquire("Salem", "10.0.0.2");
+        limiter.acquire(" salem ", "10.0.0.3");
+        limiter.acquire("SALEM", "10.0.0.4");
+        assertThatThrownBy(() -> limiter.acquire("salem", "10.0.0.5"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void purge_shouldDropKeys_whoseBucketIsFullAgain() {
+        // GIVEN
+        limiter.acquire("salem", "10.0.0.1");
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+
+        // WHEN
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        limiter.purge();
+
+        // THEN
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+
+    @Test
+    void acquire_shouldGrantExactlyCapacity_underConcurrency() throws Exception {
+        // GIVEN : une IP très permissive, le seul goulot est le login
+        LoginRateLimiter wide = new LoginRateLimiter(50, Duration.ofHours(1), 1_000_000, Duration.ofNanos(1), now::get);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        // WHEN
+        for (int i = 0; i < 400; i++) {
+            int n = i;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    wide.acquire("salem", "10.0." + (n % 200) + ".1");
+                    granted.incrementAndGet();
+                } catch (LoginThrottledException | InterruptedException ignored) {
+                    // refusé
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // THEN
+        assertThat(granted.get()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,130 @@
+package com.obs.productmanagement.security;
+
+import com.obs.productmanagement.exception.LoginThrottledException;
+import com.obs.productmanagement.exception.SignupThrottledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch slowHashStarted = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        verifier.shutdown();
+    }
+
+    @Test
+    void verify_shouldRejectImmediately_whenPoolAndQueueAreFull() throws Exception {
+        // GIVEN : 1 thread occupé + 1 tâche en file
+        verifier = new PasswordVerifier(blockingEncoder(), 1, 1, Duration.ofSeconds(30), 1, Duration.ofSeconds(5));
+        callers.submit(() -> verifier.verify("a", "{bcrypt}x"));
+        callers.submit(() -> verifier.verify("b", "{bcrypt}x"));
+        awaitQueueDepth(1);
+
+        // WHEN + THEN : la troisième ne patiente pas
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> verifier.verify("c", "{bcrypt}x"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(verifier.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_shouldGiveUp_afterTimeout() {
+        // GIVEN
+        verifier = new PasswordVerifier(blockingEncoder(), 1, 4, Duration.ofMillis(100), 1, Duration.ofSeconds(5));
+
+        // WHEN + THEN
+        assertThatThrownBy(() -> verifier.verify("a", "{bcrypt}x"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void verify_shouldReturnUpgradedHash_forLegacyPlaintext() {
+        // GIVEN
+        verifier = new PasswordVerifier(SecurityConfig.createPasswordEncoder(4), 1, 4, Duration.ofSeconds(5), 1, Duration.ofSeconds(5));
+
+        // WHEN
+        PasswordVerifier.Verification legacy = verifier.verify("secret", "secret");
+        PasswordVerifier.Verification current = verifier.verify("secret", verifier.hash("secret"));
+
+        // THEN
+        assertThat(legacy.matches()).isTrue();
+        assertThat(legacy.upgradedHash()).startsWith("{bcrypt}");
+        assertThat(current.matches()).isTrue();
+        assertThat(current.upgradedHash()).isNull();
+        assertThat(verifier.verify("wrong", "secret").matches()).isFalse();
+    }
+
+    @Test
+    void hash_shouldBypassSaturatedLoginPool_andThrottleOnItsOwnBudget() throws Exception {
+        // GIVEN : pool des connexions plein, une seule inscription à la fois
+        verifier = new PasswordVerifier(blockingEncoder(), 1, 1, Duration.ofSeconds(30), 1, Duration.ofMillis(100));
+        callers.submit(() -> verifier.verify("a", "{bcrypt}x"));
+        callers.submit(() -> verifier.verify("b", "{bcrypt}x"));
+        awaitQueueDepth(1);
+
+        // WHEN + THEN : l'inscription hache quand même
+        assertThat(verifier.hash("secret")).isEqualTo("{bcrypt}dummy");
+
+        // GIVEN : le seul permis d'inscription est pris
+        callers.submit(() -> verifier.hash("slow"));
+        assertThat(slowHashStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WHEN + THEN : refus propre à l'inscription, sans compter comme un refus de connexion
+        assertThatThrownBy(() -> verifier.hash("secret"))
+                .isInstanceOf(SignupThrottledException.class)
+                .hasMessageContaining("sign-ups");
+        assertThat(verifier.signupRejectedCount()).isEqualTo(1);
+        assertThat(verifier.rejectedCount()).isZero();
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (verifier.queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(verifier.queueDepth()).isEqualTo(depth);
+    }
+
+    // Encodeur qui bloque matches() et encode("slow") jusqu'à la fin du test
+    // (les autres encode servent au hash factice du constructeur)
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if ("slow".contentEquals(rawPassword)) {
+                    slowHashStarted.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "{bcrypt}dummy";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+    }
+}
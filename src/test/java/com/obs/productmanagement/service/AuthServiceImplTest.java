@@ -3,7 +3,7 @@ package com.obs.productmanagement.service;
 import com.obs.productmanagement.dto.AuthResponse;
 import com.obs.productmanagement.dto.LoginRequest;
 import com.obs.productmanagement.dto.UserResponse;
-import com.obs.productmanagement.exception.UserNotFoundException;
+import com.obs.productmanagement.exception.InvalidCredentialsException;
 import com.obs.productmanagement.security.JwtService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -57,11 +57,11 @@ class AuthServiceImplTest {
         LoginRequest request = new LoginRequest("unknown@example.com", "wrong");
 
         when(userService.getUserByNameOrEmailAndPassword("unknown@example.com", "wrong"))
-                .thenThrow(new UserNotFoundException("unknown@example.com", "wrong"));
+                .thenThrow(new InvalidCredentialsException());
 
         // WHEN + THEN
         assertThatThrownBy(() -> authService.login(request))
-                .isInstanceOf(UserNotFoundException.class);
+                .isInstanceOf(InvalidCredentialsException.class);
 
         verify(userService).getUserByNameOrEmailAndPassword("unknown@example.com", "wrong");
         verifyNoInteractions(jwtService); // pas de token si login KO
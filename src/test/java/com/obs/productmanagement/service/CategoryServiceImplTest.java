@@ -1,19 +1,26 @@
 package com.obs.productmanagement.service;
 
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
 import com.obs.productmanagement.dto.CategoryRequest;
 import com.obs.productmanagement.dto.CategoryResponse;
 import com.obs.productmanagement.dto.mapper.CategoryMapper;
 import com.obs.productmanagement.exception.CategoryAlreadyExistsException;
 import com.obs.productmanagement.exception.CategoryNotFoundException;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
 import com.obs.productmanagement.model.Category;
 import com.obs.productmanagement.repository.CategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -30,6 +37,19 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    // non construit : les lectures retombent sur les requêtes du repository
+    @Mock
+    private MostExpensiveIndex mostExpensiveIndex;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private CategoryCache categoryCache = new CategoryCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private CatalogVersions catalogVersions = new CatalogVersions();
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -89,6 +109,26 @@ class CategoryServiceImplTest {
         verify(categoryMapper, times(2)).toResponse(any(Category.class));
     }
 
+    @Test
+    void getAllCategories_shouldServeSnapshotFromCache_untilACategoryIsUpdated() {
+        // GIVEN
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+        when(categoryMapper.toResponse(category)).thenReturn(response);
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        // WHEN : deux lectures, une écriture, une relecture
+        categoryService.getAllCategories();
+        categoryService.getAllCategories();
+        categoryService.updateCategory(1L, request);
+        List<CategoryResponse> result = categoryService.getAllCategories();
+
+        // THEN : la base n'est relue qu'après l'écriture
+        assertThat(result).containsExactly(response);
+        verify(categoryRepository, times(2)).findAll();
+        assertThat(categoryCache.hitCount()).isEqualTo(1);
+    }
+
     @Test
     void getCategoryById_shouldReturnResponse_whenCategoryExists() {
         // GIVEN
@@ -197,6 +237,26 @@ class CategoryServiceImplTest {
         verify(categoryMapper).toResponse(updated);
     }
 
+    @Test
+    void updateAndDeleteCategory_shouldUpdateIndexes_beforeChangingETags() {
+        // GIVEN
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(category)).thenReturn(category);
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+
+        // WHEN
+        categoryService.updateCategory(1L, new CategoryRequest(null, "Tech", null));
+        categoryService.deleteCategory(1L);
+
+        // THEN
+        InOrder order = inOrder(mostExpensiveIndex, productSearchIndex, catalogVersions);
+        order.verify(mostExpensiveIndex).renameCategory(1L, "Tech");
+        order.verify(catalogVersions).categoryChanged(1L);
+        order.verify(mostExpensiveIndex).removeCategory(1L);
+        order.verify(productSearchIndex).removeCategory(1L);
+        order.verify(catalogVersions).categoryChanged(1L);
+    }
+
     @Test
     void updateCategory_shouldThrowException_whenCategoryDoesNotExist() {
         // GIVEN
@@ -0,0 +1,189 @@
+package com.obs.productmanagement.service;
+
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.dto.ProductImportError;
+import com.obs.productmanagement.dto.ProductImportResult;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import com.obs.productmanagement.repository.CategoryRepository;
+import com.obs.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Import exécuté sur H2 (schéma Flyway) : chaque lot est commité dans sa propre transaction,
+ * le test n'est donc pas transactionnel et nettoie les tables lui-même.
+ */
+@DataJpaTest(properties = "import.products.chunk-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ProductImportServiceImpl.class, CategoryCache.class, CatalogVersions.class,
+        MostExpensiveIndex.class, ProductSearchIndex.class})
+@ActiveProfiles("test")
+class ProductImportServiceImplTest {
+
+    @Autowired
+    private ProductImportServiceImpl importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MostExpensiveIndex mostExpensiveIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    private Long electronics;
+
+    @BeforeEach
+    void setUp() {
+        electronics = categoryRepository.save(new Category(null, "Electronics", "Electronic devices", null)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importJson_shouldInsertValidRows_andReportRejectedOnes() {
+        // GIVEN : un produit déjà en base
+        Category category = categoryRepository.findById(electronics).orElseThrow();
+        productRepository.save(new Product(null, "iPhone", 999.99, "Smartphone", new Date(), category));
+
+        String json = """
+                [
+                  {"name": "MacBook", "description": "Laptop", "price": 1999.99, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "iPhone", "description": "Duplicate", "price": 10.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "AirPods", "description": "Earbuds", "price": -1, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "Watch", "description": "Watch", "price": 399.0, "expiryDate": "2099-01-01", "categoryId": 999999},
+                  {"name": "MacBook", "description": "Twice in file", "price": 5.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "iPad", "description": "Tablet", "price": "not a number", "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "Keyboard", "description": "Keyboard", "price": 49.0, "expiryDate": "2099-01-01", "categoryId": %1$d}
+                ]
+                """.formatted(electronics);
+
+        // WHEN
+        ProductImportResult result = importService.importJson(stream(json));
+
+        // THEN
+        assertThat(result.received()).isEqualTo(7);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(5);
+        assertThat(result.errors()).extracting(ProductImportError::row).containsExactlyInAnyOrder(2, 3, 4, 5, 6);
+        assertThat(result.errors()).filteredOn(e -> e.row() == 4)
+                .extracting(ProductImportError::message)
+                .containsExactly("Category with id 999999 not found");
+
+        assertThat(productRepository.findExistingNames(List.of("MacBook", "Keyboard", "AirPods")))
+                .containsExactlyInAnyOrder("MacBook", "Keyboard");
+    }
+
+    @Test
+    void importCsv_shouldInsertRows_fromHeaderedCsv() {
+        // GIVEN
+        String csv = """
+                name,description,price,expiryDate,categoryId
+                Jacket,Winter jacket,119.99,2099-01-01,%1$d
+                "Coffee, 1kg",Arabica,8.5,2099-06-30,%1$d
+                Tea,,3.0,2099-06-30,%1$d
+                """.formatted(electronics);
+
+        // WHEN
+        ProductImportResult result = importService.importCsv(stream(csv));
+
+        // THEN : la ligne sans description est rejetée
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).singleElement()
+                .satisfies(e -> {
+                    assertThat(e.row()).isEqualTo(3);
+                    assertThat(e.name()).isEqualTo("Tea");
+                });
+        assertThat(productRepository.existsProductByName("Coffee, 1kg")).isTrue();
+    }
+
+    @Test
+    void importJson_shouldKeepCompletedChunks_whenInputIsTruncated() {
+        // GIVEN : deux lots complets puis un document coupé
+        String json = """
+                [
+                  {"name": "A", "description": "a", "price": 1.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "B", "description": "b", "price": 1.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "C", "description": "c", "price": 1.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "D", "description": "d", "price": 1.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "E", "description":
+                """.formatted(electronics);
+
+        // WHEN
+        ProductImportResult result = importService.importJson(stream(json));
+
+        // THEN
+        assertThat(result.imported()).isEqualTo(4);
+        assertThat(result.errors()).singleElement()
+                .extracting(ProductImportError::message, as(STRING))
+                .startsWith("Malformed input, import stopped");
+        assertThat(productRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void importJson_shouldPutImportedProductsIntoIndexes_withoutRebuildingThem() {
+        // GIVEN : index chargés sur un catalogue vide ; tout rechargement retirerait "Orphan"
+        mostExpensiveIndex.rebuild();
+        productSearchIndex.rebuild();
+        productSearchIndex.put(electronics, new ProductResponse(424242L, "Orphan", "Not in database", 1.0, null, "Electronics"));
+        String json = """
+                [
+                  {"name": "Gaming laptop", "description": "RTX", "price": 2499.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "Laptop stand", "description": "Aluminium", "price": 39.0, "expiryDate": "2099-01-01", "categoryId": %1$d},
+                  {"name": "Mouse pad", "description": "XXL", "price": 19.0, "expiryDate": "2099-01-01", "categoryId": %1$d}
+                ]
+                """.formatted(electronics);
+
+        // WHEN
+        ProductImportResult result = importService.importJson(stream(json));
+
+        // THEN
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(mostExpensiveIndex.mostExpensive(electronics).orElseThrow())
+                .singleElement()
+                .satisfies(product -> {
+                    assertThat(product.name()).isEqualTo("Gaming laptop");
+                    assertThat(product.categoryName()).isEqualTo("Electronics");
+                });
+        assertThat(productSearchIndex.search("laptop", 10).orElseThrow())
+                .extracting(ProductResponse::name)
+                .containsExactlyInAnyOrder("Gaming laptop", "Laptop stand");
+        assertThat(productSearchIndex.documentCount()).isEqualTo(4);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,225 @@
+package com.obs.productmanagement.service;
+
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.dto.CategoryFacet;
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductPageResponse;
+import com.obs.productmanagement.dto.ProductResponse;
+import com.obs.productmanagement.dto.mapper.ProductMapperImpl;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
+import com.obs.productmanagement.model.Category;
+import com.obs.productmanagement.model.Product;
+import com.obs.productmanagement.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+/*
+ * Garde-fou contre le N+1 : chaque endpoint de lecture doit rester à un nombre
+ * de requêtes SQL fixe, quel que soit le nombre de produits et de catégories.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductServiceImpl.class, ProductMapperImpl.class, CategoryCache.class, CatalogVersions.class,
+        MostExpensiveIndex.class, ProductSearchIndex.class})
+@ActiveProfiles("test")
+class ProductServiceImplStatementCountTest {
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private MostExpensiveIndex mostExpensiveIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Category electronics;
+
+    @BeforeEach
+    void setUp() {
+        electronics = persistCategory("Electronics");
+        Category fashion = persistCategory("Fashion");
+        Category grocery = persistCategory("Grocery");
+
+        persistProduct("MacBook", 2499.99, electronics);
+        persistProduct("Gaming PC", 2499.99, electronics);
+        persistProduct("AirPods", 199.99, electronics);
+        persistProduct("Jacket", 119.99, fashion);
+        persistProduct("Coffee", 8.50, grocery);
+
+        // on repart d'un contexte vide : aucune catégorie déjà chargée
+        entityManager.flush();
+        entityManager.clear();
+        mostExpensiveIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllProducts_shouldRunSingleStatement() {
+        List<ProductResponse> result = countStatements(1, productService::getAllProducts);
+
+        assertThat(result).hasSize(5);
+        assertThat(result).extracting(ProductResponse::categoryName).doesNotContainNull();
+    }
+
+    @Test
+    void getProductById_shouldRunSingleStatement() {
+        Long id = productService.getAllProducts().get(0).id();
+        statistics.clear();
+
+        ProductResponse result = countStatements(1, () -> productService.getProductById(id));
+
+        assertThat(result.categoryName()).isNotNull();
+    }
+
+    @Test
+    void getMostExpensiveProducts_shouldBeServedByIndex_withoutStatement() {
+        List<ProductResponse> result = countStatements(0, productService::getMostExpensiveProducts);
+
+        assertThat(result).extracting(ProductResponse::name).containsExactly("MacBook", "Gaming PC");
+    }
+
+    @Test
+    void getTopProductsByPrice_shouldBeServedByIndex_withoutStatement() {
+        List<ProductResponse> result = countStatements(0, () -> productService.getTopProductsByPrice(4));
+
+        assertThat(result).extracting(ProductResponse::name).containsExactly("MacBook", "Gaming PC", "AirPods", "Jacket");
+    }
+
+    @Test
+    void getProductsByCategory_shouldRunExistenceCheckPlusSingleStatement() {
+        List<ProductResponse> result = countStatements(2, () -> productService.getProductsByCategory(electronics.getId()));
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    void getProductsByCategory_shouldSkipExistenceCheck_whenCategoryIsCached() {
+        productService.getProductsByCategory(electronics.getId());
+        statistics.clear();
+
+        List<ProductResponse> result = countStatements(1, () -> productService.getProductsByCategory(electronics.getId()));
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    void getMostExpensiveProductsByCategory_shouldRunExistenceCheckOnly() {
+        List<ProductResponse> result = countStatements(1,
+                () -> productService.getMostExpensiveProductsByCategory(electronics.getId()));
+
+        assertThat(result).hasSize(2);
+    }
+
+    @Test
+    void searchByText_shouldRunSingleStatement_forSearchFallback() {
+        persistProduct("100% Cotton Shirt", 29.99, electronics);
+        entityManager.flush();
+        statistics.clear();
+
+        List<ProductResponse> result = countStatements(1, () -> productRepository.searchByText("100%", Limit.of(20)));
+
+        // "%" cherché tel quel, pas comme joker
+        assertThat(result).extracting(ProductResponse::name).containsExactly("100% Cotton Shirt");
+    }
+
+    @Test
+    void searchProducts_shouldRankInIndex_andLoadHitsInSingleStatement() {
+        productSearchIndex.rebuild();
+        statistics.clear();
+
+        List<ProductResponse> result = countStatements(1, () -> productService.searchProducts("gamng", 20));
+
+        assertThat(result).extracting(ProductResponse::name).containsExactly("Gaming PC");
+    }
+
+    @Test
+    void filterProducts_shouldRunFacetStatementPlusItemStatement() {
+        ProductFilter filter = new ProductFilter(100.0, null, null, null, List.of(electronics.getId()));
+
+        ProductFilterResponse result = countStatements(2, () -> productService.filterProducts(filter, 10));
+
+        assertThat(result.items()).extracting(ProductResponse::name).containsExactly("AirPods", "MacBook", "Gaming PC");
+        assertThat(result.total()).isEqualTo(3);
+        // Les facettes ignorent le critère de catégorie
+        assertThat(result.categories()).extracting(CategoryFacet::categoryName, CategoryFacet::count)
+                .containsExactly(tuple("Electronics", 3L), tuple("Fashion", 1L));
+    }
+
+    @Test
+    void filterProducts_shouldSkipItemStatement_whenNothingMatches() {
+        Date nextYear = new Date(System.currentTimeMillis() + 365L * 24 * 3600 * 1000);
+        ProductFilter filter = new ProductFilter(null, null, nextYear, null, null);
+
+        ProductFilterResponse result = countStatements(1, () -> productService.filterProducts(filter, 10));
+
+        assertThat(result.total()).isZero();
+        assertThat(result.items()).isEmpty();
+        assertThat(result.categories()).isEmpty();
+    }
+
+    @Test
+    void getProductsPage_shouldRunSingleStatement() {
+        countStatements(1, () -> productService.getProductsPage(null, 2, "price"));
+    }
+
+    @Test
+    void getProductsPage_byPrice_shouldAddStatementForUnpricedGroup_onLastPricedPage() {
+        persistProduct("Gift card", null, electronics);
+        entityManager.flush();
+        statistics.clear();
+
+        ProductPageResponse page = countStatements(2, () -> productService.getProductsPage(null, 10, "price"));
+
+        // Sans prix : en dernier, pas omis
+        assertThat(page.items()).extracting(ProductResponse::name)
+                .containsExactly("Coffee", "Jacket", "AirPods", "MacBook", "Gaming PC", "Gift card");
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements executed")
+                .isEqualTo(expected);
+        return result;
+    }
+
+    private Category persistCategory(String name) {
+        Category category = new Category(null, name, name + " description", null);
+        entityManager.persist(category);
+        return category;
+    }
+
+    private void persistProduct(String name, Double price, Category category) {
+        entityManager.persist(new Product(null, name, price, name + " description", new Date(), category));
+    }
+}
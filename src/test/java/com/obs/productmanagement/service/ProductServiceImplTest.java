@@ -1,9 +1,21 @@
 package com.obs.productmanagement.service;
 
+import com.obs.productmanagement.cache.CatalogVersions;
+import com.obs.productmanagement.cache.CategoryCache;
+import com.obs.productmanagement.dto.CategoryFacet;
+import com.obs.productmanagement.dto.ProductCursor;
+import com.obs.productmanagement.dto.ProductCursor.ProductSort;
+import com.obs.productmanagement.dto.ProductFilter;
+import com.obs.productmanagement.dto.ProductFilterResponse;
+import com.obs.productmanagement.dto.ProductPageResponse;
 import com.obs.productmanagement.dto.ProductRequest;
 import com.obs.productmanagement.dto.ProductResponse;
 import com.obs.productmanagement.dto.mapper.ProductMapper;
 import com.obs.productmanagement.exception.CategoryNotFoundException;
+import com.obs.productmanagement.index.MostExpensiveIndex;
+import com.obs.productmanagement.index.ProductSearchIndex;
+import com.obs.productmanagement.exception.InvalidCursorException;
+import com.obs.productmanagement.exception.InvalidFilterException;
 import com.obs.productmanagement.exception.ProductAlreadyExistsException;
 import com.obs.productmanagement.exception.ProductNotFoundException;
 import com.obs.productmanagement.model.Category;
@@ -13,10 +25,14 @@ import com.obs.productmanagement.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +52,19 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    // non construit : les lectures retombent sur les requêtes du repository
+    @Mock
+    private MostExpensiveIndex mostExpensiveIndex;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private CategoryCache categoryCache = new CategoryCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private CatalogVersions catalogVersions = new CatalogVersions();
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -98,9 +127,7 @@ class ProductServiceImplTest {
                 "Electronics"
         );
 
-        when(productRepository.findAll()).thenReturn(List.of(product, other));
-        when(productMapper.toResponse(product)).thenReturn(response);
-        when(productMapper.toResponse(other)).thenReturn(response2);
+        when(productRepository.findAllResponses()).thenReturn(List.of(response, response2));
 
         // WHEN
         List<ProductResponse> result = productService.getAllProducts();
@@ -110,15 +137,14 @@ class ProductServiceImplTest {
         assertThat(result.get(0).name()).isEqualTo("iPhone");
         assertThat(result.get(1).name()).isEqualTo("TV");
 
-        verify(productRepository).findAll();
-        verify(productMapper, times(2)).toResponse(any(Product.class));
+        verify(productRepository).findAllResponses();
+        verifyNoInteractions(productMapper);
     }
 
     @Test
     void getProductById_shouldReturnResponse_whenProductExists() {
         // GIVEN
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productMapper.toResponse(product)).thenReturn(response);
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(response));
 
         // WHEN
         ProductResponse result = productService.getProductById(1L);
@@ -128,23 +154,78 @@ class ProductServiceImplTest {
         assertThat(result.id()).isEqualTo(1L);
         assertThat(result.name()).isEqualTo("iPhone");
 
-        verify(productRepository).findById(1L);
-        verify(productMapper).toResponse(product);
+        verify(productRepository).findResponseById(1L);
+        verifyNoInteractions(productMapper);
     }
 
     @Test
     void getProductById_shouldThrowException_whenProductDoesNotExist() {
         // GIVEN
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.empty());
 
         // WHEN + THEN
         assertThatThrownBy(() -> productService.getProductById(1L))
                 .isInstanceOf(ProductNotFoundException.class);
 
-        verify(productRepository).findById(1L);
+        verify(productRepository).findResponseById(1L);
         verifyNoInteractions(productMapper);
     }
 
+    @Test
+    void createProduct_shouldLoadCategoryOnce_forConsecutiveWrites() {
+        // GIVEN
+        when(productRepository.existsProductByName(request.name())).thenReturn(false);
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(category));
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        // WHEN
+        productService.createProduct(request);
+        productService.createProduct(request);
+
+        // THEN : la deuxième écriture trouve la catégorie en cache
+        verify(categoryRepository, times(1)).findById(10L);
+        verify(productRepository, times(2)).save(product);
+        assertThat(product.getCategory().getId()).isEqualTo(10L);
+        assertThat(product.getCategory().getName()).isEqualTo("Electronics");
+    }
+
+    @Test
+    void deleteProduct_shouldRemoveProductFromIndex() {
+        // GIVEN
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // WHEN
+        productService.deleteProduct(1L);
+
+        // THEN
+        verify(mostExpensiveIndex).remove(1L);
+        verify(productSearchIndex).remove(1L);
+    }
+
+    @Test
+    void writes_shouldUpdateIndexes_beforeChangingETags() {
+        // GIVEN
+        when(productRepository.existsProductByName(request.name())).thenReturn(false);
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(categoryRepository.findById(10L)).thenReturn(Optional.of(category));
+        when(productMapper.toResponse(product)).thenReturn(response);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // WHEN
+        productService.createProduct(request);
+        productService.deleteProduct(1L);
+
+        // THEN : une lecture qui voit le nouvel ETag lit déjà les index à jour
+        InOrder order = inOrder(mostExpensiveIndex, productSearchIndex, catalogVersions);
+        order.verify(mostExpensiveIndex).put(10L, response);
+        order.verify(productSearchIndex).put(10L, response);
+        order.verify(catalogVersions).productChanged(10L);
+        order.verify(mostExpensiveIndex).remove(1L);
+        order.verify(productSearchIndex).remove(1L);
+        order.verify(catalogVersions).productChanged(null);
+    }
+
     @Test
     void createProduct_shouldSaveAndReturnResponse_whenNameDoesNotExist_andCategoryExists() {
         // GIVEN
@@ -167,6 +248,8 @@ class ProductServiceImplTest {
         verify(categoryRepository).findById(10L);
         verify(productRepository).save(product);
         verify(productMapper).toResponse(product);
+        verify(mostExpensiveIndex).put(10L, response);
+        verify(productSearchIndex).put(10L, response);
     }
 
     @Test
@@ -247,6 +330,34 @@ class ProductServiceImplTest {
         verify(productMapper).toResponse(updated);
     }
 
+    @Test
+    void updateProduct_shouldChangeETagsOfBothCategories_whenProductMoves() {
+        // GIVEN
+        Category fashion = new Category();
+        fashion.setId(20L);
+        fashion.setName("Fashion");
+        ProductRequest moveRequest = new ProductRequest(null, "iPhone", "Smartphone", 999.99, new Date(), 20L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(categoryRepository.findById(20L)).thenReturn(Optional.of(fashion));
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(response);
+
+        String productsBefore = catalogVersions.productsETag();
+        String electronicsBefore = catalogVersions.categoryProductsETag(10L);
+        String fashionBefore = catalogVersions.categoryProductsETag(20L);
+        String groceryBefore = catalogVersions.categoryProductsETag(30L);
+
+        // WHEN
+        productService.updateProduct(1L, moveRequest);
+
+        // THEN
+        assertThat(catalogVersions.productsETag()).isNotEqualTo(productsBefore);
+        assertThat(catalogVersions.categoryProductsETag(10L)).isNotEqualTo(electronicsBefore);
+        assertThat(catalogVersions.categoryProductsETag(20L)).isNotEqualTo(fashionBefore);
+        assertThat(catalogVersions.categoryProductsETag(30L)).isEqualTo(groceryBefore);
+    }
+
     @Test
     void updateProduct_shouldThrowException_whenProductDoesNotExist() {
         // GIVEN
@@ -417,9 +528,7 @@ class ProductServiceImplTest {
                 "Electronics"
         );
 
-        when(productRepository.findMostExpensiveProducts()).thenReturn(List.of(p1, p2));
-        when(productMapper.toResponse(p1)).thenReturn(r1);
-        when(productMapper.toResponse(p2)).thenReturn(r2);
+        when(productRepository.findMostExpensiveProducts()).thenReturn(List.of(r1, r2));
 
         // WHEN
         List<ProductResponse> result = productService.getMostExpensiveProducts();
@@ -430,8 +539,90 @@ class ProductServiceImplTest {
         assertThat(result.get(1).name()).isEqualTo("Gaming PC");
 
         verify(productRepository).findMostExpensiveProducts();
-        verify(productMapper).toResponse(p1);
-        verify(productMapper).toResponse(p2);
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void getMostExpensiveProducts_shouldServeFromIndex_whenIndexIsBuilt() {
+        // GIVEN
+        when(mostExpensiveIndex.mostExpensive()).thenReturn(Optional.of(List.of(response)));
+
+        // WHEN
+        List<ProductResponse> result = productService.getMostExpensiveProducts();
+
+        // THEN
+        assertThat(result).containsExactly(response);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getTopProductsByPrice_shouldFallBackToQuery_whenIndexIsNotBuilt() {
+        // GIVEN
+        when(productRepository.findTopByPrice(Limit.of(3))).thenReturn(List.of(response));
+
+        // WHEN
+        List<ProductResponse> result = productService.getTopProductsByPrice(3);
+
+        // THEN
+        assertThat(result).containsExactly(response);
+        verify(mostExpensiveIndex).top(3);
+    }
+
+    @Test
+    void searchProducts_shouldFallBackToLikeQuery_whenIndexIsNotBuilt() {
+        // GIVEN
+        when(productRepository.searchByText("iphone", Limit.of(20))).thenReturn(List.of(response));
+
+        // WHEN
+        List<ProductResponse> result = productService.searchProducts("  iphone ", 20);
+
+        // THEN
+        assertThat(result).containsExactly(response);
+        verify(productSearchIndex).search("  iphone ", 20);
+    }
+
+    @Test
+    void searchProducts_shouldServeFromIndex_whenIndexIsBuilt() {
+        // GIVEN
+        when(productSearchIndex.search("iphne", 20)).thenReturn(Optional.of(List.of(response)));
+
+        // WHEN
+        List<ProductResponse> result = productService.searchProducts("iphne", 20);
+
+        // THEN
+        assertThat(result).containsExactly(response);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void filterProducts_shouldThrowException_whenPriceRangeIsInverted() {
+        // GIVEN
+        ProductFilter filter = new ProductFilter(500.0, 100.0, null, null, null);
+
+        // WHEN / THEN
+        assertThatThrownBy(() -> productService.filterProducts(filter, 50))
+                .isInstanceOf(InvalidFilterException.class)
+                .hasMessage("minPrice must be <= maxPrice");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void filterProducts_shouldCountSelectedCategoriesOnly_andSkipItems_whenTotalIsZero() {
+        // GIVEN : aucun produit de la catégorie 30 dans la plage de prix
+        ProductFilter filter = new ProductFilter(100.0, 200.0, null, null, List.of(30L));
+        when(productRepository.countByCategory(any())).thenReturn(List.of(
+                new CategoryFacet(10L, "Electronics", 4L),
+                new CategoryFacet(20L, "Fashion", 2L)
+        ));
+
+        // WHEN
+        ProductFilterResponse result = productService.filterProducts(filter, 50);
+
+        // THEN
+        assertThat(result.total()).isZero();
+        assertThat(result.items()).isEmpty();
+        assertThat(result.categories()).hasSize(2);
+        verify(productRepository, never()).findFiltered(any(), any());
     }
 
     @Test
@@ -439,7 +630,7 @@ class ProductServiceImplTest {
         Long categoryId = 10L;
 
         // GIVEN
-        when(categoryRepository.existsById(categoryId)).thenReturn(true);
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
 
         Product p1 = new Product();
         p1.setId(1L);
@@ -464,9 +655,7 @@ class ProductServiceImplTest {
                 2L, "MacBook", "Laptop", 1999.99, p2.getExpiryDate(), "Electronics"
         );
 
-        when(productRepository.findByCategoryId(categoryId)).thenReturn(List.of(p1, p2));
-        when(productMapper.toResponse(p1)).thenReturn(r1);
-        when(productMapper.toResponse(p2)).thenReturn(r2);
+        when(productRepository.findByCategoryId(categoryId)).thenReturn(List.of(r1, r2));
 
         // WHEN
         List<ProductResponse> result = productService.getProductsByCategory(categoryId);
@@ -476,10 +665,9 @@ class ProductServiceImplTest {
         assertThat(result.get(0).name()).isEqualTo("iPhone");
         assertThat(result.get(1).name()).isEqualTo("MacBook");
 
-        verify(categoryRepository).existsById(categoryId);
+        verify(categoryRepository).findById(categoryId);
         verify(productRepository).findByCategoryId(categoryId);
-        verify(productMapper).toResponse(p1);
-        verify(productMapper).toResponse(p2);
+        verifyNoInteractions(productMapper);
     }
 
     @Test
@@ -487,13 +675,13 @@ class ProductServiceImplTest {
         Long categoryId = 999L;
 
         // GIVEN
-        when(categoryRepository.existsById(categoryId)).thenReturn(false);
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
 
         // WHEN + THEN
         assertThatThrownBy(() -> productService.getProductsByCategory(categoryId))
                 .isInstanceOf(CategoryNotFoundException.class);
 
-        verify(categoryRepository).existsById(categoryId);
+        verify(categoryRepository).findById(categoryId);
         verifyNoInteractions(productRepository, productMapper);
     }
 
@@ -502,7 +690,7 @@ class ProductServiceImplTest {
         Long categoryId = 10L;
 
         // GIVEN
-        when(categoryRepository.existsById(categoryId)).thenReturn(true);
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
 
         Product p1 = new Product();
         p1.setId(1L);
@@ -528,9 +716,7 @@ class ProductServiceImplTest {
         );
 
         when(productRepository.findMostExpensiveProductsByCategoryId(categoryId))
-                .thenReturn(List.of(p1, p2));
-        when(productMapper.toResponse(p1)).thenReturn(r1);
-        when(productMapper.toResponse(p2)).thenReturn(r2);
+                .thenReturn(List.of(r1, r2));
 
         // WHEN
         List<ProductResponse> result = productService.getMostExpensiveProductsByCategory(categoryId);
@@ -540,10 +726,9 @@ class ProductServiceImplTest {
         assertThat(result.get(0).name()).isEqualTo("MacBook Pro");
         assertThat(result.get(1).name()).isEqualTo("Gaming PC");
 
-        verify(categoryRepository).existsById(categoryId);
+        verify(categoryRepository).findById(categoryId);
         verify(productRepository).findMostExpensiveProductsByCategoryId(categoryId);
-        verify(productMapper).toResponse(p1);
-        verify(productMapper).toResponse(p2);
+        verifyNoInteractions(productMapper);
     }
 
     @Test
@@ -551,13 +736,89 @@ class ProductServiceImplTest {
         Long categoryId = 999L;
 
         // GIVEN
-        when(categoryRepository.existsById(categoryId)).thenReturn(false);
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
 
         // WHEN + THEN
         assertThatThrownBy(() -> productService.getMostExpensiveProductsByCategory(categoryId))
                 .isInstanceOf(CategoryNotFoundException.class);
 
-        verify(categoryRepository).existsById(categoryId);
+        verify(categoryRepository).findById(categoryId);
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
+    @Test
+    void getProductsPage_shouldReturnNextCursor_whenMoreRowsThanPageSize() {
+        // GIVEN
+        ProductResponse response2 = new ProductResponse(2L, "TV", null, 499.99, null, "Electronics");
+        when(productRepository.findPageOrderById(0L, Limit.of(2))).thenReturn(List.of(response, response2));
+
+        // WHEN
+        ProductPageResponse page = productService.getProductsPage(null, 1, null);
+
+        // THEN
+        assertThat(page.items()).containsExactly(response);
+        assertThat(ProductCursor.decode(page.nextCursor()))
+                .isEqualTo(new ProductCursor(ProductSort.ID, null, 1L));
+    }
+
+    @Test
+    void getProductsPage_shouldResumeAfterCursor_whenSortedByPrice() {
+        // GIVEN
+        String cursor = new ProductCursor(ProductSort.PRICE, 499.99, 2L).encode();
+        when(productRepository.findPageOrderByPrice(499.99, 2L, Limit.of(51))).thenReturn(List.of(response));
+
+        // WHEN
+        ProductPageResponse page = productService.getProductsPage(cursor, 50, null);
+
+        // THEN
+        assertThat(page.items()).containsExactly(response);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getProductsPage_shouldPageUnpricedProductsLast_whenSortedByPrice() {
+        // GIVEN : un seul produit à prix, puis deux sans prix
+        ProductResponse unpriced1 = new ProductResponse(7L, "Gift card", null, null, null, "Electronics");
+        ProductResponse unpriced2 = new ProductResponse(9L, "Voucher", null, null, null, "Electronics");
+        when(productRepository.findFirstPageOrderByPrice(Limit.of(3))).thenReturn(List.of(response));
+        when(productRepository.findUnpricedPageOrderById(0L, Limit.of(2))).thenReturn(List.of(unpriced1, unpriced2));
+
+        // WHEN
+        ProductPageResponse page = productService.getProductsPage(null, 2, "price");
+
+        // THEN
+        assertThat(page.items()).containsExactly(response, unpriced1);
+        ProductCursor next = ProductCursor.decode(page.nextCursor());
+        assertThat(next).isEqualTo(new ProductCursor(ProductSort.PRICE, null, 7L));
+
+        // WHEN : page suivante, entièrement dans le groupe sans prix
+        when(productRepository.findUnpricedPageOrderById(7L, Limit.of(3))).thenReturn(List.of(unpriced2));
+        ProductPageResponse last = productService.getProductsPage(page.nextCursor(), 2, null);
+
+        // THEN
+        assertThat(last.items()).containsExactly(unpriced2);
+        assertThat(last.nextCursor()).isNull();
+        verify(productRepository, never()).findPageOrderByPrice(any(), any(), any());
+    }
+
+    @Test
+    void getProductsPage_shouldThrowInvalidCursor_whenCursorIsMalformed() {
+        // WHEN + THEN
+        assertThatThrownBy(() -> productService.getProductsPage("not-a-cursor", 50, null))
+                .isInstanceOf(InvalidCursorException.class);
+
         verifyNoInteractions(productRepository, productMapper);
     }
+
+    @Test
+    void getProductsPage_shouldThrowInvalidCursor_whenSortDoesNotMatchCursor() {
+        // GIVEN
+        String cursor = new ProductCursor(ProductSort.ID, null, 2L).encode();
+
+        // WHEN + THEN
+        assertThatThrownBy(() -> productService.getProductsPage(cursor, 50, "price"))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verifyNoInteractions(productRepository);
+    }
 }
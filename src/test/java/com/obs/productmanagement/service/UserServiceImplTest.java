@@ -3,18 +3,23 @@ package com.obs.productmanagement.service;
 import com.obs.productmanagement.dto.UserCreateRequest;
 import com.obs.productmanagement.dto.UserResponse;
 import com.obs.productmanagement.dto.mapper.UserMapper;
+import com.obs.productmanagement.exception.InvalidCredentialsException;
 import com.obs.productmanagement.exception.UserAlreadyExistsException;
 import com.obs.productmanagement.exception.UserNotFoundException;
 import com.obs.productmanagement.model.User;
 import com.obs.productmanagement.repository.UserRepository;
+import com.obs.productmanagement.security.PasswordVerifier;
+import com.obs.productmanagement.security.SecurityConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -29,7 +34,10 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
-    @InjectMocks
+    // Coût bcrypt minimal : les tests vérifient le chemin, pas la lenteur du hash
+    @Spy
+    private PasswordEncoder passwordEncoder = SecurityConfig.createPasswordEncoder(4);
+
     private UserServiceImpl userService;
 
     private User user;
@@ -38,13 +46,16 @@ class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        userService = new UserServiceImpl(userRepository, userMapper,
+                new PasswordVerifier(passwordEncoder, 2, 8, Duration.ofSeconds(5), 2, Duration.ofSeconds(5)));
+
         createRequest = new UserCreateRequest("Salem", 25, "salem@test.com", "secret");
         user = new User();
         user.setId(1L);
         user.setName("Salem");
         user.setAge(25);
         user.setEmail("salem@test.com");
-        user.setPassword("secret");
+        user.setPassword(passwordEncoder.encode("secret"));
 
         userResponse = new UserResponse(1L, "Salem", 25, "salem@test.com");
     }
@@ -67,6 +78,8 @@ class UserServiceImplTest {
 
         verify(userRepository).existsByEmail("salem@test.com");
         verify(userRepository).save(user);
+        assertThat(user.getPassword()).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("secret", user.getPassword())).isTrue();
     }
 
     @Test
@@ -110,48 +123,133 @@ class UserServiceImplTest {
     void getUserByNameOrEmailAndPassword_shouldSearchByEmail_whenLoginContainsAtSign() {
         // GIVEN
         String login = "salem@test.com";
-        String password = "secret";
 
-        when(userRepository.findByEmailAndPassword(login, password)).thenReturn(user);
+        when(userRepository.findByEmail(login)).thenReturn(Optional.of(user));
         when(userMapper.toResponse(user)).thenReturn(userResponse);
 
         // WHEN
-        UserResponse result = userService.getUserByNameOrEmailAndPassword(login, password);
+        UserResponse result = userService.getUserByNameOrEmailAndPassword(login, "secret");
 
         // THEN
         assertThat(result.email()).isEqualTo("salem@test.com");
-        verify(userRepository).findByEmailAndPassword(login, password);
-        verify(userRepository, never()).findByNameAndPassword(anyString(), anyString());
+        verify(userRepository).findByEmail(login);
+        verify(userRepository, never()).findTop2ByName(anyString());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     void getUserByNameOrEmailAndPassword_shouldSearchByName_whenLoginDoesNotContainAtSign() {
         // GIVEN
-        String login = "salem";
-        String password = "secret";
+        String login = "Salem";
 
-        when(userRepository.findByNameAndPassword(login, password)).thenReturn(user);
+        when(userRepository.findTop2ByName(login)).thenReturn(List.of(user));
         when(userMapper.toResponse(user)).thenReturn(userResponse);
 
         // WHEN
-        UserResponse result = userService.getUserByNameOrEmailAndPassword(login, password);
+        UserResponse result = userService.getUserByNameOrEmailAndPassword(login, "secret");
 
         // THEN
         assertThat(result.name()).isEqualTo("Salem");
-        verify(userRepository).findByNameAndPassword(login, password);
-        verify(userRepository, never()).findByEmailAndPassword(anyString(), anyString());
+        verify(userRepository).findTop2ByName(login);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldFallBackToName_whenNoEmailMatchesLoginWithAtSign() {
+        // GIVEN : un nom qui contient "@" et qui n'est l'email de personne
+        String login = "salem@home";
+        when(userRepository.findByEmail(login)).thenReturn(Optional.empty());
+        when(userRepository.findTop2ByName(login)).thenReturn(List.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // WHEN
+        UserResponse result = userService.getUserByNameOrEmailAndPassword(login, "secret");
+
+        // THEN
+        assertThat(result).isEqualTo(userResponse);
+        verify(userRepository).findByEmail(login);
+        verify(userRepository).findTop2ByName(login);
     }
 
     @Test
-    void getUserByNameOrEmailAndPassword_shouldThrowException_whenUserNotFound() {
+    void getUserByNameOrEmailAndPassword_shouldRejectAmbiguousName() {
+        // GIVEN : deux comptes portent le même nom
+        User homonym = new User();
+        homonym.setPassword(passwordEncoder.encode("secret"));
+        when(userRepository.findTop2ByName("Salem")).thenReturn(List.of(user, homonym));
+
+        // WHEN + THEN
+        assertThatThrownBy(() -> userService.getUserByNameOrEmailAndPassword("Salem", "secret"))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldThrowWithoutPassword_whenPasswordIsWrong() {
+        // GIVEN
+        when(userRepository.findByEmail("salem@test.com")).thenReturn(Optional.of(user));
+
+        // WHEN + THEN
+        assertThatThrownBy(() -> userService.getUserByNameOrEmailAndPassword("salem@test.com", "wrong-secret"))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .message().doesNotContain("wrong-secret");
+        verify(userMapper, never()).toResponse(any());
+    }
+
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldStillHash_whenUserNotFound() {
         // GIVEN
         String login = "inconnu@test.com";
-        String password = "wrong";
+        when(userRepository.findByEmail(login)).thenReturn(Optional.empty());
+        clearInvocations(passwordEncoder);
+
+        // WHEN + THEN : une seule vérification bcrypt a lieu quand même, après l'email puis le nom
+        assertThatThrownBy(() -> userService.getUserByNameOrEmailAndPassword(login, "wrong"))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .message().doesNotContain("wrong");
+        verify(userRepository).findTop2ByName(login);
+        verify(passwordEncoder).matches(eq("wrong"), startsWith("{bcrypt}"));
+    }
 
-        when(userRepository.findByEmailAndPassword(login, password)).thenReturn(null);
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldRehashLegacyPlaintextPassword() {
+        // GIVEN : ligne antérieure à bcrypt, mot de passe en clair
+        user.setPassword("secret");
+        when(userRepository.findByEmail("salem@test.com")).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // WHEN
+        userService.getUserByNameOrEmailAndPassword("salem@test.com", "secret");
+
+        // THEN
+        verify(userRepository).save(user);
+        assertThat(user.getPassword()).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("secret", user.getPassword())).isTrue();
+    }
+
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldRehash_whenBcryptCostChanged() {
+        // GIVEN : hash d'un coût différent de celui configuré
+        user.setPassword(SecurityConfig.createPasswordEncoder(5).encode("secret"));
+        when(userRepository.findByEmail("salem@test.com")).thenReturn(Optional.of(user));
+        when(userMapper.toResponse(user)).thenReturn(userResponse);
+
+        // WHEN
+        userService.getUserByNameOrEmailAndPassword("salem@test.com", "secret");
+
+        // THEN
+        verify(userRepository).save(user);
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$04$");
+    }
+
+    @Test
+    void getUserByNameOrEmailAndPassword_shouldRejectWrongPassword_forLegacyRow() {
+        // GIVEN
+        user.setPassword("secret");
+        when(userRepository.findByEmail("salem@test.com")).thenReturn(Optional.of(user));
 
         // WHEN + THEN
-        assertThatThrownBy(() -> userService.getUserByNameOrEmailAndPassword(login, password))
-                .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.getUserByNameOrEmailAndPassword("salem@test.com", "secret2"))
+                .isInstanceOf(InvalidCredentialsException.class);
+        verify(userRepository, never()).save(any());
     }
 }